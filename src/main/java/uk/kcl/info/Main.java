@@ -234,11 +234,11 @@ public class Main {
     private static <ModelType> void logModelSize(ModelType model) {
         switch (model) {
             case BehavioralFeatureModel bfm ->
-                    logBesStructure("BFM", bfm.getEventsCount(), bfm.getConflictsCount(), bfm.getMaxConflictSize(), bfm.getCausalitiesCount());
+                    logBesStructure("BFM", bfm.getEventsCount(), bfm.getConflictStatistics(), bfm.getCausalitiesCount());
             case FeaturedEventStructure<?> fes ->
-                    logBesStructure("FES", fes.getEventsCount(), fes.getConflictsCount(), fes.getMaxConflictSize(), fes.getCausalitiesCount());
+                    logBesStructure("FES", fes.getEventsCount(), fes.getConflictStatistics(), fes.getCausalitiesCount());
             case BundleEventStructure bes ->
-                    logBesStructure("BES", bes.getEventsCount(), bes.getConflictsCount(), bes.getMaxConflictSize(), bes.getCausalitiesCount());
+                    logBesStructure("BES", bes.getEventsCount(), bes.getConflictStatistics(), bes.getCausalitiesCount());
             case FeaturedTransitionSystem fts ->
                     logTsStructure("FTS", fts.getActionsCount(), fts.getStatesCount(), fts.getTransitionsCount());
             case TransitionSystem ts ->
@@ -258,10 +258,10 @@ public class Main {
                 label, actions, states, transitions, total);
     }
 
-    private static void logBesStructure(String label, int events, int conflicts, int maxConflictSize, int causalities) {
-        int total = events + conflicts + causalities;
+    private static void logBesStructure(String label, int events, ConflictStatistics conflicts, int causalities) {
+        int total = events + conflicts.getConflictsCount() + causalities;
         LOG.info("[{}] - Events: {}, Conflicts: {}, Max Conflict Size: {}, Causalities: {}, Total: {}",
-                label, events, conflicts, maxConflictSize, causalities, total);
+                label, events, conflicts.getConflictsCount(), conflicts.getMaxConflictSize(), causalities, total);
     }
 
     public static Map<String, String> getSystems() {
@@ -26,12 +26,22 @@ import be.vibes.solver.Group;
 import com.google.common.base.Preconditions;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 public class BehavioralFeature extends Feature<BehavioralFeature> {
     private final Map<Event, FExpression> events;
     private final Set<CausalityRelation> causalities;
     private final ConflictSet conflicts;
 
+    // Set by BehavioralFeatureModelFactory.build(): the tree no longer changes, and subtree aggregates are cached
+    private boolean treeFrozen;
+
+    // Subtree aggregates, null until computed once the tree is frozen
+    private Set<BehavioralFeature> recursiveFeatures;
+    private Set<Event> recursiveEvents;
+    private Set<CausalityRelation> recursiveCausalities;
+    private ConflictSet recursiveConflicts;
+
     public BehavioralFeature(String name) {
         super(name);
         this.events = new HashMap<>();
@@ -79,13 +89,10 @@ public class BehavioralFeature extends Feature<BehavioralFeature> {
         Preconditions.checkNotNull(ev, "Event may not be null!");
         Preconditions.checkNotNull(fexpr, "FExpression may not be null!");
         this.events.put(ev,getBFexpFromFM(fexpr));
+        invalidateAggregates(f -> f.recursiveEvents = null);
         return ev;
     }
 
-    protected Event addEvent(String eventName, FExpression fexpr) {
-        return this.addEvent(new Event(eventName), fexpr);
-    }
-
     protected void updateEventFexpr(String eventName, FExpression fexpr) {
         Preconditions.checkNotNull(eventName, "Event name may not be null!");
         Preconditions.checkNotNull(fexpr, "FExpression may not be null!");
@@ -185,12 +192,14 @@ public class BehavioralFeature extends Feature<BehavioralFeature> {
         Preconditions.checkNotNull(bundle, "Bundle may not be null!");
         Preconditions.checkNotNull(target, "Targeted event may not be null!");
 
-        Set<Event> ev = this.getAllRecursiveEvents();
-        Preconditions.checkArgument(ev.contains(target), "Event does not belong to this behavioral feature model or any of its subtree!");
-        Preconditions.checkArgument(ev.containsAll(bundle), "Some events in the bundle do not belong to this behavioral feature model or any of its subtree!");
+        Preconditions.checkArgument(hasRecursiveEvent(target), "Event does not belong to this behavioral feature model or any of its subtree!");
+        for (Event e : bundle) {
+            Preconditions.checkArgument(hasRecursiveEvent(e), "Some events in the bundle do not belong to this behavioral feature model or any of its subtree!");
+        }
 
         CausalityRelation causality = new CausalityRelation(bundle, target);
         this.causalities.add(causality);
+        invalidateAggregates(f -> f.recursiveCausalities = null);
         return causality;
     }
 
@@ -199,8 +208,10 @@ public class BehavioralFeature extends Feature<BehavioralFeature> {
         return addCausality(causality.getBundle(), causality.getTarget());
     }
 
-    ConflictSet getConflictSet(){
-        return this.conflicts;
+    // Applies the addition to the conflicts of this feature, the only way to modify them
+    void updateConflicts(Consumer<ConflictSet> addition) {
+        addition.accept(this.conflicts);
+        invalidateAggregates(f -> f.recursiveConflicts = null);
     }
 
     public ConflictSet getRootConflictSetCopy() {
@@ -217,16 +228,20 @@ public class BehavioralFeature extends Feature<BehavioralFeature> {
         return events;
     }
 
+    // Unmodifiable view, cached until the subtree changes once the tree is frozen
     public Set<BehavioralFeature> getAllRecursiveFeatures() {
-        Set<BehavioralFeature> features = new HashSet<>();
-        features.add(this);
-
-        for (Group<BehavioralFeature> g : this.getChildren()) {
-            for(BehavioralFeature f: g.getFeatures()){
-                features.addAll((f).getAllRecursiveFeatures());
+        Set<BehavioralFeature> features = this.recursiveFeatures;
+        if (features == null) {
+            Set<BehavioralFeature> all = new HashSet<>();
+            all.add(this);
+            for (BehavioralFeature f : getChildFeatures()) {
+                all.addAll(f.getAllRecursiveFeatures());
+            }
+            features = Collections.unmodifiableSet(all);
+            if (this.treeFrozen) {
+                this.recursiveFeatures = features;
             }
         }
-
         return features;
     }
 
@@ -239,43 +254,113 @@ public class BehavioralFeature extends Feature<BehavioralFeature> {
         return null;
     }
 
+    // Unmodifiable view, cached until the subtree changes once the tree is frozen
     public Set<Event> getAllRecursiveEvents() {
-        Set<Event> ev = new HashSet<>(this.events.keySet());
-
-        for (Group<BehavioralFeature> g : this.getChildren()) {
-            for(BehavioralFeature f: g.getFeatures()){
+        Set<Event> events = this.recursiveEvents;
+        if (events == null) {
+            Set<Event> ev = new HashSet<>(this.events.keySet());
+            for (BehavioralFeature f : getChildFeatures()) {
                 ev.addAll(f.getAllRecursiveEvents());
             }
+            events = Collections.unmodifiableSet(ev);
+            if (this.treeFrozen) {
+                this.recursiveEvents = events;
+            }
         }
+        return events;
+    }
 
-        return ev;
+    // Whether the event belongs to this subtree, without building its events while the tree is not frozen
+    boolean hasRecursiveEvent(Event event) {
+        if (this.treeFrozen) {
+            return getAllRecursiveEvents().contains(event);
+        } else if (this.events.containsKey(event)) {
+            return true;
+        }
+        for (BehavioralFeature f : getChildFeatures()) {
+            if (f.hasRecursiveEvent(event)) {
+                return true;
+            }
+        }
+        return false;
     }
 
+    // Unmodifiable view, cached until the subtree changes once the tree is frozen
     public Set<CausalityRelation> getAllRecursiveCausalities() {
-        Set<CausalityRelation> causes = new HashSet<>(this.causalities);
-
-        for (Group<BehavioralFeature> g : this.getChildren()) {
-            for(BehavioralFeature f: g.getFeatures()){
+        Set<CausalityRelation> causalities = this.recursiveCausalities;
+        if (causalities == null) {
+            Set<CausalityRelation> causes = new HashSet<>(this.causalities);
+            for (BehavioralFeature f : getChildFeatures()) {
                 causes.addAll(f.getAllRecursiveCausalities());
             }
+            causalities = Collections.unmodifiableSet(causes);
+            if (this.treeFrozen) {
+                this.recursiveCausalities = causalities;
+            }
         }
-
-        return causes;
+        return causalities;
     }
 
+    // A copy of the conflicts of the subtree
     public ConflictSet getAllRecursiveConflicts() {
         ConflictSet allConflicts = new ConflictSet();
-        allConflicts.addConflicts(this.conflicts);
+        allConflicts.addConflicts(getRecursiveConflictSet());
+        return allConflicts;
+    }
 
-        for (Group<BehavioralFeature> g : this.getChildren()) {
-            for(BehavioralFeature f: g.getFeatures()){
-                allConflicts.addConflicts(f.getAllRecursiveConflicts());
+    // The conflicts of the subtree, merged once and cached until the subtree changes once the tree is frozen: not to
+    // be modified
+    ConflictSet getRecursiveConflictSet() {
+        ConflictSet allConflicts = this.recursiveConflicts;
+        if (allConflicts == null) {
+            allConflicts = new ConflictSet();
+            allConflicts.addConflicts(this.conflicts);
+            for (BehavioralFeature f : getChildFeatures()) {
+                allConflicts.addConflicts(f.getRecursiveConflictSet());
+            }
+            if (this.treeFrozen) {
+                this.recursiveConflicts = allConflicts;
             }
         }
-
         return allConflicts;
     }
 
+    private List<BehavioralFeature> getChildFeatures() {
+        List<BehavioralFeature> children = new ArrayList<>();
+        for (Group<BehavioralFeature> g : this.getChildren()) {
+            children.addAll(g.getFeatures());
+        }
+        return children;
+    }
+
+    @Override
+    public void setParentGroup(Group<BehavioralFeature> group) {
+        BehavioralFeature parent = group == null ? null : group.getParentFeature();
+        Preconditions.checkState(!this.treeFrozen && (parent == null || !parent.treeFrozen),
+                "The feature tree may not change once the behavioral feature model is built!");
+        super.setParentGroup(group);
+    }
+
+    // Caches the aggregates of the subtree from now on: its events, causalities and conflicts may still change
+    void freezeTree() {
+        this.treeFrozen = true;
+        for (BehavioralFeature f : getChildFeatures()) {
+            f.freezeTree();
+        }
+    }
+
+    // Drops a cached aggregate of this feature and of all its ancestors
+    private void invalidateAggregates(Consumer<BehavioralFeature> drop) {
+        for (BehavioralFeature f = this; f != null; f = f.getParentFeature()) {
+            drop.accept(f);
+        }
+    }
+
+    private BehavioralFeature getParentFeature() {
+        Group<BehavioralFeature> group = this.getParentGroup();
+        return group == null ? null : group.getParentFeature();
+    }
+
     public FExpression getFExpression(Event event) {
         Preconditions.checkNotNull(event, "Event may not be null!");
 
@@ -315,5 +400,9 @@ public class BehavioralFeature extends Feature<BehavioralFeature> {
         return conflicts.getTotalNumberOfConflictingEvents();
     }
 
+    public ConflictStatistics getConflictStatistics() {
+        return conflicts.getStatistics();
+    }
+
     //TODO: Override toString, equals and hashcode to Add the behavioural part
 }
@@ -19,39 +19,66 @@
 package uk.kcl.info.bfm;
 
 import be.vibes.fexpression.FExpression;
-import be.vibes.fexpression.Feature;
-import be.vibes.fexpression.configuration.ConfigurationSet;
 import be.vibes.solver.FeatureModel;
 import be.vibes.solver.Group;
 import be.vibes.solver.SolverFacade;
-import be.vibes.solver.exception.ConstraintSolvingException;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Table;
+import uk.kcl.info.bfm.configuration.ConfigurationEnumerationStrategy;
+import uk.kcl.info.bfm.configuration.EnumerationStatistics;
+import uk.kcl.info.utils.fexpression.FExpressionCache;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class BehavioralFeatureModel extends FeatureModel<BehavioralFeature> implements FeaturedEventStructure<BehavioralFeature> {
 
     private final Table<Set<Event>, Event, CausalityRelation> causalityTable;
+    // outgoingCausalities[e] = all X ↦ f such as e ∈ X
+    private final SetMultimap<Event, CausalityRelation> outgoingCausalities = LinkedHashMultimap.create();
 
-    private Map<Set<Event>, FExpression> configFexpressions;
+    // Lookup indexes, built eagerly by BehavioralFeatureModelFactory.build() and kept up to date by its mutators
+    private final Map<Event, BehavioralFeature> eventFeatures = new HashMap<>();
+    private EventRegistry eventRegistry = new EventRegistry();
+
+    private ConfigurationGuards<?> configGuards;
+    private SolverSession solverSession;
+
+    private ConfigurationEnumerationStrategy enumerationStrategy = ConfigurationEnumerationStrategy.DUPLICATE_FREE;
+    private EnumerationStatistics enumerationStatistics = new EnumerationStatistics();
+    private ProductEnumeration productEnumeration = ProductEnumeration.PER_PRODUCT;
+    private FExpressionCache fexpressionCache = new FExpressionCache();
+
+    private final GuardRepresentation guardRepresentation;
 
     protected BehavioralFeatureModel() {
+        this(GuardRepresentation.FEXPRESSION);
+    }
+
+    protected BehavioralFeatureModel(GuardRepresentation guardRepresentation) {
         super();
         this.causalityTable = HashBasedTable.create();
+        this.guardRepresentation = Preconditions.checkNotNull(guardRepresentation, "Guard representation may not be null!");
     }
 
     protected BehavioralFeatureModel(SolverFacade solver) {
         super(solver);
         this.causalityTable = HashBasedTable.create();
+        this.guardRepresentation = GuardRepresentation.FEXPRESSION;
     }
 
     protected BehavioralFeatureModel(FeatureModel<?> fm) {
+        this(fm, GuardRepresentation.FEXPRESSION);
+    }
+
+    protected BehavioralFeatureModel(FeatureModel<?> fm, GuardRepresentation guardRepresentation) {
 
         super();
+        this.guardRepresentation = Preconditions.checkNotNull(guardRepresentation, "Guard representation may not be null!");
         this.setNamespace(fm.getNamespace());
 
         BehavioralFeature root = new BehavioralFeature(fm.getRootFeature());
@@ -77,31 +104,49 @@ public class BehavioralFeatureModel extends FeatureModel<BehavioralFeature> impl
 
     protected void setCausalityTable() {
         for(CausalityRelation causality: this.getRootFeature().getAllRecursiveCausalities()){
-            this.causalityTable.put(causality.getBundle(), causality.getTarget(), causality);
+            indexCausality(causality);
         }
     }
 
-    private BehavioralFeature getRecursiveFeature(BehavioralFeature currentFeature, Event event){
-
-        if(currentFeature.getEventMap().containsKey(event)){
-            return currentFeature;
-        } else {
-            for (Group<?> group : currentFeature.getChildren()) {
-                for (Feature<?> bf : group.getFeatures()) {
-                    BehavioralFeature result = getRecursiveFeature(this.getFeature(bf.getFeatureName()), event);
-                    if (result != null) {
-                        return result;
-                    }
-                }
+    // Builds the lookup indexes from the feature tree, whose events are the instances of the given registry
+    protected void setIndexes(EventRegistry registry) {
+        Preconditions.checkNotNull(registry, "Event registry may not be null!");
+        this.eventFeatures.clear();
+        this.eventRegistry = registry;
+        for (BehavioralFeature bf : this.getRootFeature().getAllRecursiveFeatures()) {
+            for (Event event : bf.getEventMap().keySet()) {
+                indexEvent(event, bf);
             }
-            return null;
         }
+        // Merges the conflicts of the subtree once, so that a built model is only read afterwards
+        getConflictIndex();
+    }
+
+    void indexEvent(Event event, BehavioralFeature bf) {
+        Preconditions.checkArgument(this.eventRegistry.get(event) == event, event + " is not registered in this behavioral feature model!");
+        this.eventFeatures.put(event, bf);
+    }
+
+    void indexCausality(CausalityRelation causality) {
+        this.causalityTable.put(causality.getBundle(), causality.getTarget(), causality);
+        for (Event event : causality.getBundle()) {
+            this.outgoingCausalities.put(event, causality);
+        }
+    }
+
+    // Conflicts of all the features, merged by the root feature and dropped only when a feature's conflicts change
+    ConflictSet getConflictIndex() {
+        return this.getRootFeature().getRecursiveConflictSet();
+    }
+
+    public EventRegistry getEventRegistry() {
+        return this.eventRegistry;
     }
 
     @Override
     public BehavioralFeature getFeature(Event event){
         Preconditions.checkNotNull(event, "Event may not be null!");
-        return getRecursiveFeature(this.getRootFeature(), event);
+        return this.eventFeatures.get(event);
     }
 
     @Override
@@ -113,15 +158,12 @@ public class BehavioralFeatureModel extends FeatureModel<BehavioralFeature> impl
 
     @Override
     public FExpression getFExpression(Set<Event> config) {
-        return this.configFexpressions.get(config);
+        return this.configGuards == null ? null : this.configGuards.getFExpression(config);
     }
 
     @Override
     public Event getEvent(String name) {
-        Event ev = new Event(name);
-        if (this.getRootFeature().getAllRecursiveEvents().contains(ev)){
-            return ev;
-        } else {return null;}
+        return getEventRegistry().get(name);
     }
 
     @Override
@@ -137,7 +179,7 @@ public class BehavioralFeatureModel extends FeatureModel<BehavioralFeature> impl
 
     @Override
     public List<Event> getAllEvents() {
-        return this.getRootFeature().getAllRecursiveEvents().stream().toList();
+        return getEventRegistry().getEvents();
     }
 
     @Override
@@ -152,17 +194,17 @@ public class BehavioralFeatureModel extends FeatureModel<BehavioralFeature> impl
 
     @Override
     public boolean areInConflict(Event var1, Event var2) {
-        return this.getRootFeature().getAllRecursiveConflicts().areInConflict(var1, var2);
+        return getConflictIndex().areInConflict(var1, var2);
     }
 
     @Override
     public Set<Event> getAllConflictsOfEvent(Event event) {
-        return this.getRootFeature().getAllRecursiveConflicts().getConflicts(event);
+        return getConflictIndex().getConflicts(event);
     }
 
     @Override
     public Iterator<Event> events() {
-        return this.getRootFeature().getAllRecursiveEvents().iterator();
+        return this.getAllEvents().iterator();
     }
     @Override
     public Iterator<CausalityRelation> causalities() {
@@ -174,124 +216,75 @@ public class BehavioralFeatureModel extends FeatureModel<BehavioralFeature> impl
         return this.getRootFeature().getRootConflictSetCopy();
     }
 
-    @Override
-    public TreeMap<Integer, Set<Set<Event>>> getAllConfigurations() {
-        TreeMap<Integer, Set<Set<Event>>> configurationsBySize = new TreeMap<>();
-        this.configFexpressions = new HashMap<>();
-        this.configFexpressions.put(new HashSet<>(), FExpression.trueValue());
-        try {
-            buildProductConfigurations(new LinkedHashSet<>(), new ArrayList<>(this.getAllEvents()), configurationsBySize);
-            this.resetSolver();
-        } catch (ConstraintSolvingException e) {
-            throw new IllegalStateException("Error solving constraints: " + e.getMessage(), e.getCause());
-        }
-        return configurationsBySize;
+    public ConfigurationEnumerationStrategy getEnumerationStrategy() {
+        return enumerationStrategy;
     }
 
-    private void buildProductConfigurations(Set<Event> currentConfig, List<Event> remainingEvents, TreeMap<Integer, Set<Set<Event>>> configurationsBySize) throws ConstraintSolvingException {
-
-        // Store a copy of the current configuration
-        Set<Event> configSet = new HashSet<>(currentConfig);
-        // Add to TreeMap based on its size
-        configurationsBySize.computeIfAbsent(configSet.size(), k -> new HashSet<>()).add(configSet);
-
-        // Create a copy of remaining events to avoid concurrent modification
-        List<Event> remainingEventsList = new ArrayList<>(remainingEvents);
-        for (Event e : remainingEventsList) {
-            if (isConflictFree(e, currentConfig)) {
-                List<FExpression> products = getValidProducts(e, currentConfig); // The products containing e parent feature,  satisfying the fexpr associated to e AND the fexpr associated to currentConfig
-                for (FExpression productFExp : products) {
-                    if (respectsCausality(e, currentConfig, productFExp)) {
-                        // If both conditions are satisfied, add the event to the current configuration.
-                        currentConfig.add(e);
-                        // Remove event 'e' from remaining events to prevent re-selection in this configuration.
-                        remainingEvents.remove(e);
-                        // Concatenate FExpression
-                        this.configFexpressions.merge(new HashSet<>(currentConfig), productFExp, (oldValue, newValue) -> oldValue.or(newValue).applySimplification().toCnf());
-                        // Recursively build configurations with the updated current configuration and remaining events.
-                        buildProductConfigurations(currentConfig, remainingEvents, configurationsBySize);
-                        // Backtrack: Remove event 'e' from the current configuration to explore other possible configurations.
-                        currentConfig.remove(e);
-                        // Add event 'e' back to the remaining events for further exploration.
-                        remainingEvents.add(e);
-                    }
-                }
-            }
-        }
+    public void setEnumerationStrategy(ConfigurationEnumerationStrategy enumerationStrategy) {
+        Preconditions.checkNotNull(enumerationStrategy, "Enumeration strategy may not be null!");
+        this.enumerationStrategy = enumerationStrategy;
     }
 
-    //TODO: Check correctness
-    protected boolean isConflictFree(Event e, Set<Event> config) {
-        for (Event other : config) {
-            if (this.areInConflict(e, other)) {
-                return false;
-            }
-        }
-        return true;
+    // Statistics of the last call to getAllConfigurations()
+    public EnumerationStatistics getEnumerationStatistics() {
+        return enumerationStatistics;
     }
 
-    protected boolean respectsCausality(Event e, Set<Event> config, FExpression productFexpr) {
-        Set<Set<Event>> causes = this.getAllBundles(e); // All X such as X ↦ e
-
-        for (Set<Event> bundle : causes) {
-
-            // Restrict bundle to only events whose features are in the product
-            Set<Event> restrictedBundle = bundle.stream()
-                    .filter(event -> {
-                        FExpression fexpr = this.getFExpression(event).and(productFexpr);
-                        return !fexpr.applySimplification().isFalse();
-                    })
-                    .collect(Collectors.toSet());
-
-            // If the intersection is empty, causality is not respected
-            if (!restrictedBundle.isEmpty() & Collections.disjoint(config, restrictedBundle)) { // X inter {𝑒1, . . . , 𝑒𝑖−1} = ∅
-                return false;
-            }
-        }
-        return true;
+    public ProductEnumeration getProductEnumeration() {
+        return productEnumeration;
     }
 
-    private List<FExpression> getValidProducts(Event event, Set<Event> config) {
-
-        Collection<BehavioralFeature> allFeatures = this.getFeatures();
-        FExpression configFexpr = this.configFexpressions.get(config);
-
-
-        FExpression constraint = this.getFExpression(event).and(configFexpr);
-
+    public void setProductEnumeration(ProductEnumeration productEnumeration) {
+        Preconditions.checkNotNull(productEnumeration, "Product enumeration may not be null!");
+        this.productEnumeration = productEnumeration;
+    }
 
+    public GuardRepresentation getGuardRepresentation() {
+        return guardRepresentation;
+    }
 
-        ConfigurationSet allProducts = new ConfigurationSet(this, constraint);
+    @Override
+    public FExpressionCache getFExpressionCache() {
+        return fexpressionCache;
+    }
 
-        List<FExpression> allFExps = allProducts.stream().map(product -> {
-            // Construct the product feature expression
-            FExpression productFExp = FExpression.trueValue();
+    // Shares a cache between structures, e.g. with the converters working on this one
+    public void setFExpressionCache(FExpressionCache fexpressionCache) {
+        Preconditions.checkNotNull(fexpressionCache, "FExpression cache may not be null!");
+        this.fexpressionCache = fexpressionCache;
+    }
 
-            List<BehavioralFeature> featuresTMP = new ArrayList<>();
-            BehavioralFeature f1 = null;
-            for (Feature<?> f : product) { //TODO: To remove once Feature.hashcode() is debugged
-                for(BehavioralFeature f2: this.getFeatures()){
-                    if (f.getFeatureName().equals(f2.getFeatureName())){
-                        f1 = f2;
-                    }
-                }
-                assert (f1 != null);
-                featuresTMP.add(f1);
+    @Override
+    public TreeMap<Integer, Set<Set<Event>>> getAllConfigurations() {
+        TreeMap<Integer, Set<Set<Event>>> configurationsBySize = new TreeMap<>();
+        ProductConfigurationWalk<?> walk = newWalk();
+        try {
+            if (this.getEnumerationStrategy() == ConfigurationEnumerationStrategy.ALL_LINEARISATIONS) {
+                walk.buildAllLinearisations(new LinkedHashSet<>(), new ArrayList<>(this.getAllEvents()), configurationsBySize);
+            } else {
+                walk.buildConfigurations(configurationsBySize);
             }
+        } finally {
+            this.solverSession.close();
+        }
+        return configurationsBySize;
+    }
 
-            for (BehavioralFeature f : allFeatures) {
-                FExpression fFexpr= new FExpression(f);
-                if(featuresTMP.contains(f)){
-                    //if(product.isSelected(f)){
-                    productFExp.andWith(fFexpr);
-                } else {
-                    productFExp.andWith(fFexpr.not());
-                }
-            }
-            return productFExp.applySimplification();
-        }).toList();
+    /**
+     * Streams the configurations level by level. While iterating, {@link #getFExpression(Set)} answers for the
+     * configurations of the last two levels returned: older feature expressions are released.
+     */
+    @Override
+    public Iterator<Set<Set<Event>>> getConfigurationLevels() {
+        return newWalk().getConfigurationLevels(this.solverSession::close);
+    }
 
-        return allFExps;
+    // Starts an enumeration: fresh statistics, solver session and guards
+    private ProductConfigurationWalk<?> newWalk() {
+        this.enumerationStatistics = new EnumerationStatistics();
+        this.solverSession = new SolverSession(this, this.enumerationStatistics);
+        this.configGuards = ConfigurationGuards.create(this.guardRepresentation, this, this, this.solverSession, this.fexpressionCache);
+        return new ProductConfigurationWalk<>(this, this.configGuards, this.enumerationStatistics, this.productEnumeration);
     }
 
     protected Set<Set<Event>> getAllBundles(Event var1){
@@ -324,31 +317,19 @@ public class BehavioralFeatureModel extends FeatureModel<BehavioralFeature> impl
     }
 
     @Override
-    public Iterator<CausalityRelation> getOutgoingCausalities(Event event) {
-
-        Set<CausalityRelation> causalities = new HashSet<>();
-
-        for(CausalityRelation causality: this.causalityTable.values()){
-            if(causality.getBundle().contains(event)){
-                causalities.add(causality);
-            }
-        }
+    public ConflictStatistics getConflictStatistics() {
+        return this.getRootFeature().getAllRecursiveFeatures().stream().map(BehavioralFeature::getConflictStatistics)
+                .reduce(ConflictStatistics.EMPTY, ConflictStatistics::merge);
+    }
 
-        return Iterables.concat(causalities).iterator();
+    @Override
+    public Iterator<CausalityRelation> getOutgoingCausalities(Event event) {
+        return Iterators.unmodifiableIterator(this.outgoingCausalities.get(event).iterator());
     }
 
     @Override
     public int getOutgoingCausalityCount(Event event) {
-
-        int i = 0;
-
-        for(CausalityRelation causality: this.causalityTable.values()){
-            if(causality.getBundle().contains(event)){
-                i++;
-            }
-        }
-
-        return i;
+        return this.outgoingCausalities.get(event).size();
     }
 
     @Override
@@ -31,6 +31,10 @@ public class BehavioralFeatureModelFactory extends XMLModelFactory<BehavioralFea
 
     private final Map<Event, BehavioralFeature> featureMap = new HashMap<>();
     private final Map<Event, String> eventFexprMap = new HashMap<>();
+    // Events are interned when created, and the registry is handed to the model by build()
+    private final EventRegistry eventRegistry = new EventRegistry();
+    // The model once built, whose indexes follow the later mutations
+    private BehavioralFeatureModel bfm;
 
     public BehavioralFeatureModelFactory() {
         super(BehavioralFeatureModel::new);
@@ -44,6 +48,14 @@ public class BehavioralFeatureModelFactory extends XMLModelFactory<BehavioralFea
         super(() -> new BehavioralFeatureModel(fm), fm.getSolver().getType());
     }
 
+    public BehavioralFeatureModelFactory(GuardRepresentation guardRepresentation) {
+        super(() -> new BehavioralFeatureModel(guardRepresentation));
+    }
+
+    public BehavioralFeatureModelFactory(FeatureModel<?> fm, GuardRepresentation guardRepresentation) {
+        super(() -> new BehavioralFeatureModel(fm, guardRepresentation), fm.getSolver().getType());
+    }
+
     public BehavioralFeature setRootFeature(String name){
         BehavioralFeature feature = new BehavioralFeature(name);
         return setRootFeature(feature, name);
@@ -77,9 +89,10 @@ public class BehavioralFeatureModelFactory extends XMLModelFactory<BehavioralFea
             throw new BehavioralFeatureModelDefinitionException("Events should always be associated to one feature of the BFM.");
         }
 
-        Event ev = feature.addEvent(event, FExpression.trueValue());
+        Event ev = feature.addEvent(this.eventRegistry.intern(event), FExpression.trueValue());
         featureMap.put(ev, feature);
         eventFexprMap.put(ev, fexprStr);
+        indexEvent(ev, feature);
     }
 
     public void addEvent(String featName, String event, FExpression fexpr) {
@@ -88,8 +101,9 @@ public class BehavioralFeatureModelFactory extends XMLModelFactory<BehavioralFea
             throw new BehavioralFeatureModelDefinitionException("Events should always be associated to one feature of the BFM.");
         }
 
-        Event ev = feature.addEvent(event, fexpr);
+        Event ev = feature.addEvent(this.eventRegistry.intern(event), fexpr);
         featureMap.put(ev, feature);
+        indexEvent(ev, feature);
     }
 
     public void updateAllEventFexpr() {
@@ -119,11 +133,10 @@ public class BehavioralFeatureModelFactory extends XMLModelFactory<BehavioralFea
 
     public void addCausality(String featName, Set<String> bundle, String target) {
 
-        Event trg = new Event(target);
+        Event trg = getRegisteredEvent(target);
         Set<Event> bndl = new HashSet<>();
         for(String name: bundle) {
-            Event event = new Event(name);
-            bndl.add(event);
+            bndl.add(getRegisteredEvent(name));
         }
 
         this.addCausality(featName,bndl,trg);
@@ -133,7 +146,7 @@ public class BehavioralFeatureModelFactory extends XMLModelFactory<BehavioralFea
 
         BehavioralFeature feature = this.getFeature(featName);
         if(feature != null){
-            feature.addCausality(bundle, target);
+            indexCausality(feature.addCausality(getRegisteredEvents(bundle), getRegisteredEvent(target)));
         } else {
             throw new BehavioralFeatureModelDefinitionException("Causalities should always be associated to one feature of the BFM.");
         }
@@ -142,7 +155,7 @@ public class BehavioralFeatureModelFactory extends XMLModelFactory<BehavioralFea
     public void addCausality(String featName, CausalityRelation causalityRelation) {
         BehavioralFeature feature = this.getFeature(featName);
         if(feature != null){
-            feature.addCausality(causalityRelation);
+            indexCausality(feature.addCausality(getRegisteredEvents(causalityRelation.getBundle()), getRegisteredEvent(causalityRelation.getTarget())));
         } else {
             throw new BehavioralFeatureModelDefinitionException("Causalities should always be associated to one feature of the BFM.");
         }
@@ -150,11 +163,10 @@ public class BehavioralFeatureModelFactory extends XMLModelFactory<BehavioralFea
 
     public void addCausality(BehavioralFeature feat, Set<String> bundle, String target) {
 
-        Event trg = new Event(target);
+        Event trg = getRegisteredEvent(target);
         Set<Event> bndl = new HashSet<>();
         for(String name: bundle) {
-            Event event = new Event(name);
-            bndl.add(event);
+            bndl.add(getRegisteredEvent(name));
         }
 
         this.addCausality(feat,bndl,trg);
@@ -164,7 +176,7 @@ public class BehavioralFeatureModelFactory extends XMLModelFactory<BehavioralFea
 
         BehavioralFeature feature = this.getFeature(feat.getFeatureName());
         if(feature != null){
-            feat.addCausality(bundle, target);
+            indexCausality(feat.addCausality(getRegisteredEvents(bundle), getRegisteredEvent(target)));
         } else {
             throw new BehavioralFeatureModelDefinitionException("Causalities should always be associated to one feature of the BFM.");
         }
@@ -173,7 +185,7 @@ public class BehavioralFeatureModelFactory extends XMLModelFactory<BehavioralFea
     public void addCausality(BehavioralFeature feat, CausalityRelation causalityRelation) {
         BehavioralFeature feature = this.getFeature(feat.getFeatureName());
         if(feature != null){
-            feat.addCausality(causalityRelation);
+            indexCausality(feat.addCausality(getRegisteredEvents(causalityRelation.getBundle()), getRegisteredEvent(causalityRelation.getTarget())));
         } else {
             throw new BehavioralFeatureModelDefinitionException("Causalities should always be associated to one feature of the BFM.");
         }
@@ -198,13 +210,14 @@ public class BehavioralFeatureModelFactory extends XMLModelFactory<BehavioralFea
 
     public void addConflict(BehavioralFeature feat, Event event1, Event event2) {
 
-        Set<Event> ev = feat.getAllRecursiveEvents();
-        Preconditions.checkArgument(ev.contains(event1), event1 + " does not belong to this behavioral feature model or any of its subtree!");
-        Preconditions.checkArgument(ev.contains(event2), event2 + " does not belong to this behavioral feature model or any of its subtree!");
+        Preconditions.checkArgument(feat.hasRecursiveEvent(event1), event1 + " does not belong to this behavioral feature model or any of its subtree!");
+        Preconditions.checkArgument(feat.hasRecursiveEvent(event2), event2 + " does not belong to this behavioral feature model or any of its subtree!");
 
         BehavioralFeature feature = this.getFeature(feat.getFeatureName());
         if(feature != null){
-            feat.getConflictSet().addConflict(event1, event2);
+            Event e1 = this.eventRegistry.get(event1);
+            Event e2 = this.eventRegistry.get(event2);
+            feat.updateConflicts(set -> set.addConflict(e1, e2));
         } else {
             throw new BehavioralFeatureModelDefinitionException("Conflicts should always be associated to one feature of the BFM.");
         }
@@ -238,44 +251,81 @@ public class BehavioralFeatureModelFactory extends XMLModelFactory<BehavioralFea
     }
 
     public void addConflicts(BehavioralFeature feat, Event event1, Collection<?> group) {
-        Set<Event> allEvents = feat.getAllRecursiveEvents();
-        Preconditions.checkArgument(allEvents.contains(event1), event1 + " does not belong to this BFM!");
-        Set<Event> events = toEventSet(group, allEvents);
+        Preconditions.checkArgument(feat.hasRecursiveEvent(event1), event1 + " does not belong to this BFM!");
+        Event e1 = this.eventRegistry.get(event1);
+        Set<Event> events = toEventSet(group, feat);
 
         BehavioralFeature feature = this.getFeature(feat.getFeatureName());
         if(feature != null){
-            feat.getConflictSet().addConflicts(event1, events);
+            feat.updateConflicts(set -> set.addConflicts(e1, events));
         } else {
             throw new BehavioralFeatureModelDefinitionException("Conflicts should always be associated to one feature of the BFM.");
         }
     }
 
     public void addConflicts(BehavioralFeature feat, Collection<?> group1, Collection<?> group2) {
-        Set<Event> allEvents = feat.getAllRecursiveEvents();
-        Set<Event> events1 = toEventSet(group1, allEvents);
-        Set<Event> events2 = toEventSet(group2, allEvents);
+        Set<Event> events1 = toEventSet(group1, feat);
+        Set<Event> events2 = toEventSet(group2, feat);
 
         BehavioralFeature feature = this.getFeature(feat.getFeatureName());
         if(feature != null){
-            feat.getConflictSet().addConflicts(events1, events2);
+            feat.updateConflicts(set -> set.addConflicts(events1, events2));
         } else {
             throw new BehavioralFeatureModelDefinitionException("Conflicts should always be associated to one feature of the BFM.");
         }
     }
 
     public void addConflicts(BehavioralFeature feat, ConflictSet set) {
-        Set<Event> allEvents = feat.getAllRecursiveEvents();
-        Preconditions.checkArgument(allEvents.containsAll(set.getAllEvents()), "All events of a conflict should belong to the BFM!");
+        for (Event e : set.getAllEvents()) {
+            Preconditions.checkArgument(feat.hasRecursiveEvent(e), "All events of a conflict should belong to the BFM!");
+        }
 
         BehavioralFeature feature = this.getFeature(feat.getFeatureName());
         if(feature != null){
-            feat.getConflictSet().addConflicts(set);
+            feat.updateConflicts(conflicts -> {
+                for (Event e : set.getAllEvents()) {
+                    conflicts.addConflicts(this.eventRegistry.get(e), getRegisteredEvents(set.getConflicts(e)));
+                }
+            });
         } else {
             throw new BehavioralFeatureModelDefinitionException("Conflicts should always be associated to one feature of the BFM.");
         }
     }
 
-    private static Set<Event> toEventSet(Collection<?> group, Set<Event> allEvents) {
+    private void indexEvent(Event ev, BehavioralFeature feature) {
+        if (this.bfm != null) {
+            this.bfm.indexEvent(ev, feature);
+        }
+    }
+
+    private void indexCausality(CausalityRelation causality) {
+        if (this.bfm != null) {
+            this.bfm.indexCausality(causality);
+        }
+    }
+
+    private Event getRegisteredEvent(String name) {
+        Event event = this.eventRegistry.get(name);
+        Preconditions.checkArgument(event != null, name + " does not belong to this behavioral feature model!");
+        return event;
+    }
+
+    private Event getRegisteredEvent(Event event) {
+        Preconditions.checkNotNull(event, "Event may not be null!");
+        return getRegisteredEvent(event.getName());
+    }
+
+    private Set<Event> getRegisteredEvents(Collection<Event> events) {
+        Preconditions.checkNotNull(events, "Events may not be null!");
+        Set<Event> registered = new HashSet<>();
+        for (Event event : events) {
+            registered.add(getRegisteredEvent(event));
+        }
+        return registered;
+    }
+
+    // The registered instances of the events, given as Event or as names
+    private Set<Event> toEventSet(Collection<?> group, BehavioralFeature feat) {
         Set<Event> events = new HashSet<>();
         for (Object o : group) {
             Event e;
@@ -287,9 +337,9 @@ public class BehavioralFeatureModelFactory extends XMLModelFactory<BehavioralFea
                 throw new IllegalArgumentException(
                         "Conflict collections must contain only Event or String elements.");
             }
-            Preconditions.checkArgument(allEvents.contains(e),
+            Preconditions.checkArgument(feat.hasRecursiveEvent(e),
                     "All events of a conflict should belong to the BFM!");
-            events.add(e);
+            events.add(this.eventRegistry.get(e));
         }
         return events;
     }
@@ -301,9 +351,11 @@ public class BehavioralFeatureModelFactory extends XMLModelFactory<BehavioralFea
     @Override
     public BehavioralFeatureModel build() {
         Preconditions.checkArgument(eventFexprMap.isEmpty(), "Some FExpressions are not yet associated with their Event. Please call updateAllEventFexpr().");
-        BehavioralFeatureModel bfm = (BehavioralFeatureModel) super.build();
-        bfm.setCausalityTable();
-        return bfm;
+        this.bfm = (BehavioralFeatureModel) super.build();
+        this.bfm.getRootFeature().freezeTree();
+        this.bfm.setCausalityTable();
+        this.bfm.setIndexes(this.eventRegistry);
+        return this.bfm;
     }
 
 }
\ No newline at end of file
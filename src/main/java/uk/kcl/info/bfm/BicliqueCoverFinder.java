@@ -0,0 +1,393 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm;
+
+import java.util.*;
+
+/**
+ * Computes a biclique edge cover of a conflict graph. Events are sorted by name and indexed, the graph is stored as an
+ * adjacency bit matrix, and the edges not covered yet are kept in a second bit matrix, so that expanding a biclique
+ * and marking its edges as covered are word-level operations. The cover only depends on the names of the events, so
+ * printed conflicts are stable from one run to the other.
+ */
+final class BicliqueCoverFinder {
+
+    // Maximum number of biclique pairs (or edges) examined by the local search
+    static final int LOCAL_SEARCH_BUDGET = 100_000;
+
+    private final Event[] events;
+    private final int words;
+    private final long[][] adjacency;
+    private final long[][] uncovered;
+    private final int[] uncoveredDegree;
+    private long uncoveredEdges;
+
+    BicliqueCoverFinder(Map<Event, Set<Event>> conflictMap) {
+        Set<Event> allEvents = new TreeSet<>(Comparator.comparing(Event::getName));
+        for (Map.Entry<Event, Set<Event>> entry : conflictMap.entrySet()) {
+            allEvents.add(entry.getKey());
+            allEvents.addAll(entry.getValue());
+        }
+        this.events = allEvents.toArray(new Event[0]);
+        Map<Event, Integer> ids = new HashMap<>();
+        for (int i = 0; i < events.length; i++) {
+            ids.put(events[i], i);
+        }
+
+        this.words = (events.length + 63) >>> 6;
+        this.adjacency = new long[events.length][words];
+        for (Map.Entry<Event, Set<Event>> entry : conflictMap.entrySet()) {
+            int e1 = ids.get(entry.getKey());
+            for (Event other : entry.getValue()) {
+                int e2 = ids.get(other);
+                set(adjacency[e1], e2);
+                set(adjacency[e2], e1);
+            }
+        }
+
+        this.uncovered = new long[events.length][];
+        this.uncoveredDegree = new int[events.length];
+        for (int i = 0; i < events.length; i++) {
+            uncovered[i] = adjacency[i].clone();
+            uncoveredDegree[i] = cardinality(uncovered[i]);
+            uncoveredEdges += uncoveredDegree[i];
+        }
+        uncoveredEdges /= 2;
+    }
+
+    List<ConflictSet.Biclique> findCover(BicliqueCoverStrategy strategy) {
+        List<long[][]> cover = new ArrayList<>();
+
+        while (uncoveredEdges > 0) {
+            // Seed with an uncovered edge between the two events having the most uncovered conflicts
+            int u = 0;
+            for (int i = 1; i < events.length; i++) {
+                if (uncoveredDegree[i] > uncoveredDegree[u]) {
+                    u = i;
+                }
+            }
+            int v = -1;
+            for (int i : members(uncovered[u])) {
+                if (v < 0 || uncoveredDegree[i] > uncoveredDegree[v]) {
+                    v = i;
+                }
+            }
+
+            long[][] biclique = expand(u, v);
+            markCovered(biclique[0], biclique[1]);
+            cover.add(biclique);
+        }
+
+        if (strategy == BicliqueCoverStrategy.LOCAL_SEARCH) {
+            int budget = mergeBicliques(cover, LOCAL_SEARCH_BUDGET);
+            // Maximal bicliques overlap more, which lets the smaller ones become redundant
+            cover.replaceAll(this::extend);
+            budget = removeRedundantBicliques(cover, budget);
+            shrinkBicliques(cover, budget);
+            cover.removeIf(biclique -> cardinality(biclique[0]) == 0 || cardinality(biclique[1]) == 0);
+        }
+
+        List<ConflictSet.Biclique> bicliques = new ArrayList<>(cover.size());
+        for (long[][] biclique : cover) {
+            bicliques.add(new ConflictSet.Biclique(toEvents(biclique[0]), toEvents(biclique[1])));
+        }
+        return bicliques;
+    }
+
+    /*
+     * Grows a biclique around the uncovered edge (u, v): u is on the left and the right side is the common
+     * neighbourhood of the left side, so it always contains v. Neighbours of v join the left side, most uncovered
+     * conflicts first, whenever they increase the number of uncovered edges in the biclique.
+     */
+    private long[][] expand(int u, int v) {
+        long[] left = new long[words];
+        set(left, u);
+        long[] right = adjacency[u].clone();
+        long gain = countUncovered(left, right);
+
+        Integer[] candidates = members(adjacency[v]).stream().filter(x -> x != u).toArray(Integer[]::new);
+        Arrays.sort(candidates, (x, y) -> uncoveredDegree[x] != uncoveredDegree[y]
+                ? Integer.compare(uncoveredDegree[y], uncoveredDegree[x]) : Integer.compare(x, y));
+
+        for (int x : candidates) {
+            long[] newRight = and(right, adjacency[x]);
+            set(left, x);
+            long newGain = countUncovered(left, newRight);
+            if (newGain > gain) {
+                right = newRight;
+                gain = newGain;
+            } else {
+                clear(left, x);
+            }
+        }
+
+        // Only keep the events bringing uncovered edges
+        right = and(right, uncoveredNeighbours(left));
+        left = and(left, uncoveredNeighbours(right));
+        right = and(right, uncoveredNeighbours(left));
+
+        // Any other event in conflict with the whole right side and bringing uncovered edges joins the left side
+        for (int x : members(adjacency[v])) {
+            if (!get(left, x) && containsAll(adjacency[x], right) && intersects(uncovered[x], right)) {
+                set(left, x);
+            }
+        }
+        return new long[][]{left, right};
+    }
+
+    private void markCovered(long[] left, long[] right) {
+        for (int l : members(left)) {
+            long removed = countAnd(uncovered[l], right);
+            uncoveredEdges -= removed;
+            uncoveredDegree[l] -= (int) removed;
+            andNot(uncovered[l], right);
+        }
+        for (int r : members(right)) {
+            uncoveredDegree[r] -= countAnd(uncovered[r], left);
+            andNot(uncovered[r], left);
+        }
+    }
+
+    // Replaces pairs of bicliques by their union whenever the union is still a biclique
+    private int mergeBicliques(List<long[][]> cover, int budget) {
+        boolean merged = true;
+        while (merged && budget > 0) {
+            merged = false;
+            for (int i = 0; i < cover.size() && budget > 0; i++) {
+                for (int j = i + 1; j < cover.size() && budget > 0; j++) {
+                    budget--;
+                    long[][] union = union(cover.get(i), cover.get(j));
+                    if (union != null) {
+                        cover.set(i, union);
+                        cover.remove(j);
+                        merged = true;
+                        j--;
+                    }
+                }
+            }
+        }
+        return budget;
+    }
+
+    private long[][] union(long[][] b1, long[][] b2) {
+        long[][][] orientations = {{or(b1[0], b2[0]), or(b1[1], b2[1])}, {or(b1[0], b2[1]), or(b1[1], b2[0])}};
+        for (long[][] candidate : orientations) {
+            if (isBiclique(candidate[0], candidate[1])) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private boolean isBiclique(long[] left, long[] right) {
+        if (intersects(left, right)) {
+            return false;
+        }
+        for (int l : members(left)) {
+            if (!containsAll(adjacency[l], right)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Extends the biclique to a maximal one
+    private long[][] extend(long[][] biclique) {
+        long[] left = biclique[0].clone();
+        long[] right = biclique[1].clone();
+        for (int x = 0; x < events.length; x++) {
+            if (!get(left, x) && !get(right, x) && containsAll(adjacency[x], right)) {
+                set(left, x);
+            }
+        }
+        for (int x = 0; x < events.length; x++) {
+            if (!get(left, x) && !get(right, x) && containsAll(adjacency[x], left)) {
+                set(right, x);
+            }
+        }
+        return new long[][]{left, right};
+    }
+
+    // Removes from each biclique the events whose edges in it are all covered by other bicliques
+    private void shrinkBicliques(List<long[][]> cover, int budget) {
+        for (long[][] biclique : cover) {
+            for (int side = 0; side < 2; side++) {
+                for (int x : members(biclique[side])) {
+                    boolean needed = false;
+                    for (int y : members(biclique[1 - side])) {
+                        if (--budget < 0) {
+                            return;
+                        }
+                        if (!isCoveredByOthers(cover, biclique, x, y)) {
+                            needed = true;
+                            break;
+                        }
+                    }
+                    if (!needed) {
+                        clear(biclique[side], x);
+                    }
+                }
+            }
+        }
+    }
+
+    // Drops the bicliques whose edges are all covered by the other ones, smallest first
+    private int removeRedundantBicliques(List<long[][]> cover, int budget) {
+        List<long[][]> bySize = new ArrayList<>(cover);
+        bySize.sort(Comparator.comparingLong(b -> (long) cardinality(b[0]) * cardinality(b[1])));
+
+        for (long[][] biclique : bySize) {
+            boolean redundant = true;
+            for (int l : members(biclique[0])) {
+                for (int r : members(biclique[1])) {
+                    if (--budget < 0) {
+                        return budget;
+                    }
+                    if (!isCoveredByOthers(cover, biclique, l, r)) {
+                        redundant = false;
+                        break;
+                    }
+                }
+                if (!redundant) {
+                    break;
+                }
+            }
+            if (redundant) {
+                cover.remove(biclique);
+            }
+        }
+        return budget;
+    }
+
+    private boolean isCoveredByOthers(List<long[][]> cover, long[][] excluded, int a, int b) {
+        for (long[][] other : cover) {
+            if (other != excluded && ((get(other[0], a) && get(other[1], b)) || (get(other[0], b) && get(other[1], a)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long countUncovered(long[] left, long[] right) {
+        long count = 0;
+        for (int l : members(left)) {
+            count += countAnd(uncovered[l], right);
+        }
+        return count;
+    }
+
+    private long[] uncoveredNeighbours(long[] side) {
+        long[] neighbours = new long[words];
+        for (int i : members(side)) {
+            for (int w = 0; w < words; w++) {
+                neighbours[w] |= uncovered[i][w];
+            }
+        }
+        return neighbours;
+    }
+
+    private Set<Event> toEvents(long[] mask) {
+        Set<Event> set = new LinkedHashSet<>();
+        for (int i : members(mask)) {
+            set.add(events[i]);
+        }
+        return set;
+    }
+
+    private static List<Integer> members(long[] mask) {
+        List<Integer> members = new ArrayList<>();
+        for (int w = 0; w < mask.length; w++) {
+            long word = mask[w];
+            while (word != 0) {
+                members.add((w << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return members;
+    }
+
+    private static boolean get(long[] mask, int bit) {
+        return (mask[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private static void set(long[] mask, int bit) {
+        mask[bit >>> 6] |= 1L << bit;
+    }
+
+    private static void clear(long[] mask, int bit) {
+        mask[bit >>> 6] &= ~(1L << bit);
+    }
+
+    private static long[] and(long[] a, long[] b) {
+        long[] result = new long[a.length];
+        for (int w = 0; w < a.length; w++) {
+            result[w] = a[w] & b[w];
+        }
+        return result;
+    }
+
+    private static long[] or(long[] a, long[] b) {
+        long[] result = new long[a.length];
+        for (int w = 0; w < a.length; w++) {
+            result[w] = a[w] | b[w];
+        }
+        return result;
+    }
+
+    private static void andNot(long[] a, long[] b) {
+        for (int w = 0; w < a.length; w++) {
+            a[w] &= ~b[w];
+        }
+    }
+
+    private static int countAnd(long[] a, long[] b) {
+        int count = 0;
+        for (int w = 0; w < a.length; w++) {
+            count += Long.bitCount(a[w] & b[w]);
+        }
+        return count;
+    }
+
+    private static boolean intersects(long[] a, long[] b) {
+        for (int w = 0; w < a.length; w++) {
+            if ((a[w] & b[w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // b ⊆ a
+    private static boolean containsAll(long[] a, long[] b) {
+        for (int w = 0; w < a.length; w++) {
+            if ((b[w] & ~a[w]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int cardinality(long[] mask) {
+        int count = 0;
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm;
+
+// Trade-off between the size of the biclique cover of a ConflictSet and the time spent computing it
+public enum BicliqueCoverStrategy {
+    // Single greedy pass, each biclique chosen to cover as many uncovered conflicts as possible
+    GREEDY,
+    // Greedy pass followed by a bounded search merging bicliques and dropping redundant ones
+    LOCAL_SEARCH
+}
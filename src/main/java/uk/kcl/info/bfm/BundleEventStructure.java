@@ -50,6 +50,9 @@ public interface BundleEventStructure {
 
     TreeMap<Integer, Set<Set<Event>>> getAllConfigurations();
 
+    // Configurations produced lazily, level by level (by increasing size), without materialising the whole lattice
+    Iterator<Set<Set<Event>>> getConfigurationLevels();
+
     int getEventsCount();
 
     int getCausalitiesCount();
@@ -60,6 +63,9 @@ public interface BundleEventStructure {
 
     int getTotalNumberOfConflictingEvents();
 
+    // Conflict metrics computed together, from a single biclique cover
+    ConflictStatistics getConflictStatistics();
+
     boolean areInConflict(Event var1, Event var2);
 
 }
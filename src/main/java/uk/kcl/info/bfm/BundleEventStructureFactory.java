@@ -41,11 +41,10 @@ public class BundleEventStructureFactory {
 
     public void addCausality(Set<String> bundle, String target) {
 
-        Event trg = new Event(target);
+        Event trg = getRegisteredEvent(target);
         Set<Event> bndl = new HashSet<>();
         for(String name: bundle) {
-            Event event = new Event(name);
-            bndl.add(event);
+            bndl.add(getRegisteredEvent(name));
         }
 
         this.bes.addCausality(bndl, trg);
@@ -64,50 +63,56 @@ public class BundleEventStructureFactory {
     }
 
     public void addConflict(Event event1, Event event2) {
-        Set<Event> allEvents = new HashSet<>(this.bes.getAllEvents());
-        Preconditions.checkArgument(allEvents.contains(event1), event1 + " does not belong to this bundle event structure!");
-        Preconditions.checkArgument(allEvents.contains(event2), event2 + " does not belong to this bundle event structure!");
-        this.bes.getConflictSet().addConflict(event1, event2);
+        EventRegistry registry = this.bes.getEventRegistry();
+        Preconditions.checkArgument(registry.contains(event1), event1 + " does not belong to this bundle event structure!");
+        Preconditions.checkArgument(registry.contains(event2), event2 + " does not belong to this bundle event structure!");
+        this.bes.getConflictSet().addConflict(registry.get(event1), registry.get(event2));
     }
 
     public void addConflicts(Event event1, Collection<Event> group) {
-        Set<Event> allEvents = new HashSet<>(this.bes.getAllEvents());
-        Preconditions.checkArgument(allEvents.contains(event1), event1 + " does not belong to this bundle event structure!");
-        Preconditions.checkArgument(allEvents.containsAll(group), "All events of a conflict should belong to the bundle event structure!");
-        this.bes.getConflictSet().addConflicts(event1, group);
+        EventRegistry registry = this.bes.getEventRegistry();
+        Preconditions.checkArgument(registry.contains(event1), event1 + " does not belong to this bundle event structure!");
+        this.bes.getConflictSet().addConflicts(registry.get(event1), toEventSet(group, registry));
     }
 
     public void addConflicts(Collection<?> group1, Collection<?> group2) {
-        Set<Event> allEvents = new HashSet<>(this.bes.getAllEvents());
+        EventRegistry registry = this.bes.getEventRegistry();
 
-        Set<Event> events1 = toEventSet(group1, allEvents);
-        Set<Event> events2 = toEventSet(group2, allEvents);
+        Set<Event> events1 = toEventSet(group1, registry);
+        Set<Event> events2 = toEventSet(group2, registry);
 
         this.bes.getConflictSet().addConflicts(events1, events2);
     }
 
-    private Set<Event> toEventSet(Collection<?> group, Set<Event> allEvents) {
+    // The registered instances of the events, given as Event or as names
+    private static Set<Event> toEventSet(Collection<?> group, EventRegistry registry) {
         Set<Event> events = new HashSet<>();
         for (Object o : group) {
             Event e;
             if (o instanceof Event) {
-                e = (Event) o;
+                e = registry.get((Event) o);
             } else if (o instanceof String) {
-                e = new Event((String) o);
+                e = registry.get((String) o);
             } else {
                 throw new IllegalArgumentException(
                         "Conflict collections must contain only Event or String elements.");
             }
-            Preconditions.checkArgument(allEvents.contains(e),
+            Preconditions.checkArgument(e != null,
                     "All events of a conflict should belong to the bundle event structure!");
             events.add(e);
         }
         return events;
     }
 
+    private Event getRegisteredEvent(String name) {
+        Event event = this.bes.getEvent(name);
+        Preconditions.checkArgument(event != null, name + " does not belong to this bundle event structure!");
+        return event;
+    }
+
     public void addConflicts(ConflictSet set) {
-        Set<Event> allEvents = new HashSet<>(this.bes.getAllEvents());
-        Preconditions.checkArgument(allEvents.containsAll(set.getAllEvents()),
+        EventRegistry registry = this.bes.getEventRegistry();
+        Preconditions.checkArgument(set.getAllEvents().stream().allMatch(registry::contains),
                 "All events of a conflict should belong to the bundle event structure!");
 
         this.bes.getConflictSet().addConflicts(set);
@@ -0,0 +1,284 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm;
+
+import be.vibes.fexpression.FExpression;
+import be.vibes.fexpression.Feature;
+import be.vibes.fexpression.configuration.Configuration;
+import be.vibes.solver.FeatureModel;
+import uk.kcl.info.utils.bdd.BddManager;
+import uk.kcl.info.utils.bdd.FExpressionBddEncoder;
+import uk.kcl.info.utils.fexpression.FExpressionCache;
+
+import java.util.*;
+
+/**
+ * Guards of the configurations of a featured event structure while they are enumerated: the disjunction of the
+ * products in which each configuration is reached. The empty configuration is guarded by true. Guards are of the type
+ * G of the representation, and every operation needed to extend a configuration is done on this type, so a guard is
+ * only turned into a feature expression when {@link #getFExpression(Set)} is called.
+ */
+abstract class ConfigurationGuards<G> {
+
+    static ConfigurationGuards<?> create(GuardRepresentation representation, FeatureModel<?> fm,
+                                         FeaturedEventStructure<?> fes, SolverSession session, FExpressionCache cache) {
+        return switch (representation) {
+            case FEXPRESSION -> new FExpressionGuards(fm, fes, session, cache);
+            case BDD -> new BddGuards(fm, fes);
+        };
+    }
+
+    // Guard of the configuration, or null if it was not reached
+    abstract G get(Set<Event> config);
+
+    // guard(config) := guard(config) ∨ product
+    abstract void add(Set<Event> config, G product);
+
+    abstract void remove(Set<Event> config);
+
+    // Feature expression of the guard of the configuration, or null if it was not reached
+    abstract FExpression getFExpression(Set<Event> config);
+
+    // Guard of the event in the structure
+    abstract G encode(Event e);
+
+    abstract G falseValue();
+
+    abstract G and(G a, G b);
+
+    abstract G or(G a, G b);
+
+    abstract G not(G a);
+
+    // True iff a ∧ b is not trivially empty, regardless of the feature model
+    abstract boolean areCompatible(G a, G b);
+
+    // True iff some product of the feature model satisfies the guard
+    abstract boolean isSatisfiable(G guard);
+
+    // One guard per product of the feature model satisfying the constraint, each satisfied by this product only
+    abstract List<G> getProducts(G constraint);
+
+    private static class FExpressionGuards extends ConfigurationGuards<FExpression> {
+
+        private final FeatureModel<?> fm;
+        private final FeaturedEventStructure<?> fes;
+        private final SolverSession session;
+        private final FExpressionCache cache;
+        private final Map<Set<Event>, FExpression> guards = new HashMap<>();
+
+        FExpressionGuards(FeatureModel<?> fm, FeaturedEventStructure<?> fes, SolverSession session, FExpressionCache cache) {
+            this.fm = fm;
+            this.fes = fes;
+            this.session = session;
+            this.cache = cache;
+            this.guards.put(new HashSet<>(), FExpression.trueValue());
+        }
+
+        @Override
+        FExpression get(Set<Event> config) {
+            return guards.get(config);
+        }
+
+        @Override
+        void add(Set<Event> config, FExpression product) {
+            guards.merge(config, product, (oldValue, newValue) -> cache.toCnf(cache.or(oldValue, newValue)));
+        }
+
+        @Override
+        void remove(Set<Event> config) {
+            guards.remove(config);
+        }
+
+        @Override
+        FExpression getFExpression(Set<Event> config) {
+            return guards.get(config);
+        }
+
+        @Override
+        FExpression encode(Event e) {
+            return fes.getFExpression(e);
+        }
+
+        @Override
+        FExpression falseValue() {
+            return FExpression.falseValue();
+        }
+
+        @Override
+        FExpression and(FExpression a, FExpression b) {
+            return cache.and(a, b);
+        }
+
+        @Override
+        FExpression or(FExpression a, FExpression b) {
+            return cache.or(a, b);
+        }
+
+        @Override
+        FExpression not(FExpression a) {
+            return cache.not(a);
+        }
+
+        @Override
+        boolean areCompatible(FExpression a, FExpression b) {
+            return !cache.isFalse(cache.and(a, b));
+        }
+
+        @Override
+        boolean isSatisfiable(FExpression guard) {
+            return !cache.isFalse(guard) && session.isSatisfiable(guard);
+        }
+
+        @Override
+        List<FExpression> getProducts(FExpression constraint) {
+            List<FExpression> products = new ArrayList<>();
+            for (Configuration product : session.getSolutions(constraint)) {
+                // Features are matched by name. TODO: To remove once Feature.hashcode() is debugged
+                Set<String> selected = new HashSet<>();
+                for (Feature<?> f : product) {
+                    selected.add(f.getFeatureName());
+                }
+                FExpression productFExp = FExpression.trueValue();
+                for (Feature<?> f : fm.getFeatures()) {
+                    FExpression fFexpr = new FExpression(f);
+                    productFExp.andWith(selected.contains(f.getFeatureName()) ? fFexpr : fFexpr.not());
+                }
+                // productFExp is built for this call only: caching on it would never hit
+                products.add(productFExp.applySimplification());
+            }
+            return products;
+        }
+    }
+
+    /*
+     * Guards are BDD nodes: conjunction, disjunction and emptiness are manager operations, and equivalent guards are
+     * the same node. The feature model itself is compiled once into a BDD (see
+     * FExpressionBddEncoder#encodeFeatureModel), whose variables follow a depth-first walk of the feature tree. A guard
+     * is satisfiable iff its conjunction with it is not false, and the products satisfying a constraint are read
+     * from the satisfying paths of that conjunction: neither needs the solver. The guards of the events are encoded
+     * once. An instance belongs to a single walk and is not thread-safe.
+     */
+    private static class BddGuards extends ConfigurationGuards<Integer> {
+
+        private final FeaturedEventStructure<?> fes;
+        private final FExpressionBddEncoder encoder = new FExpressionBddEncoder(new BddManager());
+        private final BddManager manager = encoder.getManager();
+        private final Map<Set<Event>, Integer> guards = new HashMap<>();
+        // Decoded guards, dropped with their configuration or when their guard grows
+        private final Map<Set<Event>, FExpression> decoded = new HashMap<>();
+        private final Map<Event, Integer> events = new HashMap<>();
+        private final int featureModel;
+        // Variables of the features of the model, in the order of the manager
+        private final int[] productVariables;
+
+        BddGuards(FeatureModel<?> fm, FeaturedEventStructure<?> fes) {
+            this.fes = fes;
+            this.featureModel = encoder.encodeFeatureModel(fm);
+            this.productVariables = fm.getFeatures().stream()
+                    .mapToInt(f -> encoder.getVariable(f.getFeatureName()))
+                    .distinct()
+                    .sorted()
+                    .toArray();
+            this.guards.put(new HashSet<>(), BddManager.TRUE);
+        }
+
+        @Override
+        Integer get(Set<Event> config) {
+            return guards.get(config);
+        }
+
+        @Override
+        void add(Set<Event> config, Integer product) {
+            guards.merge(config, product, manager::or);
+            decoded.remove(config);
+        }
+
+        @Override
+        void remove(Set<Event> config) {
+            guards.remove(config);
+            decoded.remove(config);
+        }
+
+        @Override
+        FExpression getFExpression(Set<Event> config) {
+            Integer guard = guards.get(config);
+            return guard == null ? null : decoded.computeIfAbsent(config, k -> encoder.decode(guard));
+        }
+
+        @Override
+        Integer encode(Event e) {
+            return events.computeIfAbsent(e, k -> encoder.encode(fes.getFExpression(k)));
+        }
+
+        @Override
+        Integer falseValue() {
+            return BddManager.FALSE;
+        }
+
+        @Override
+        Integer and(Integer a, Integer b) {
+            return manager.and(a, b);
+        }
+
+        @Override
+        Integer or(Integer a, Integer b) {
+            return manager.or(a, b);
+        }
+
+        @Override
+        Integer not(Integer a) {
+            return manager.not(a);
+        }
+
+        @Override
+        boolean areCompatible(Integer a, Integer b) {
+            return manager.and(a, b) != BddManager.FALSE;
+        }
+
+        @Override
+        boolean isSatisfiable(Integer guard) {
+            return manager.and(guard, featureModel) != BddManager.FALSE;
+        }
+
+        @Override
+        List<Integer> getProducts(Integer constraint) {
+            List<Integer> products = new ArrayList<>();
+            addProducts(manager.and(featureModel, constraint), 0, BddManager.TRUE, products);
+            return products;
+        }
+
+        // Adds one minterm over the features of the model per product below node, product fixing the first depth ones
+        private void addProducts(int node, int depth, int product, List<Integer> products) {
+            if (node == BddManager.FALSE) {
+                return;
+            }
+            if (depth == productVariables.length) {
+                products.add(product);
+                return;
+            }
+            int variable = productVariables[depth];
+            boolean tested = !manager.isTerminal(node) && manager.getVariable(node) == variable;
+            addProducts(tested ? manager.getLow(node) : node, depth + 1,
+                    manager.and(product, manager.notVariable(variable)), products);
+            addProducts(tested ? manager.getHigh(node) : node, depth + 1,
+                    manager.and(product, manager.variable(variable)), products);
+        }
+    }
+}
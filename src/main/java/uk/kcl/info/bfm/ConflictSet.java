@@ -28,13 +28,40 @@ public class ConflictSet {
     // Each key maps to a set of events it conflicts with
     private final Map<Event, Set<Event>> conflictMap = new HashMap<>();
 
+    // Biclique cover, its metrics and the clique finder, computed on demand and dropped whenever a conflict is added
+    private Set<Biclique> bicliqueCover;
+    private ConflictStatistics statistics;
+    private BicliqueCoverStrategy coverStrategy = BicliqueCoverStrategy.GREEDY;
+    private MaximalCliqueFinder cliqueFinder;
+
     public void addConflict(Event e1, Event e2) {
         Preconditions.checkNotNull(e1, "Event may not be null!");
         Preconditions.checkNotNull(e2, "Event may not be null!");
         if (e1.equals(e2)) return; // optional: ignore self-conflict
 
-        conflictMap.computeIfAbsent(e1, k -> new HashSet<>()).add(e2);
+        boolean added = conflictMap.computeIfAbsent(e1, k -> new HashSet<>()).add(e2);
         conflictMap.computeIfAbsent(e2, k -> new HashSet<>()).add(e1); // symmetrical
+        if (added) {
+            invalidateCover();
+        }
+    }
+
+    private void invalidateCover() {
+        this.bicliqueCover = null;
+        this.statistics = null;
+        this.cliqueFinder = null;
+    }
+
+    public BicliqueCoverStrategy getCoverStrategy() {
+        return coverStrategy;
+    }
+
+    public void setCoverStrategy(BicliqueCoverStrategy coverStrategy) {
+        Preconditions.checkNotNull(coverStrategy, "Cover strategy may not be null!");
+        if (this.coverStrategy != coverStrategy) {
+            this.coverStrategy = coverStrategy;
+            invalidateCover();
+        }
     }
 
     public void addConflicts(Event e1, Collection<Event> group) {
@@ -64,7 +91,7 @@ public class ConflictSet {
     }
 
     public Set<Event> getConflicts(Event e) {
-        return conflictMap.getOrDefault(e, Collections.emptySet());
+        return Collections.unmodifiableSet(conflictMap.getOrDefault(e, Collections.emptySet()));
     }
 
     public Set<Event> getAllEvents() {
@@ -79,36 +106,25 @@ public class ConflictSet {
 
     // Returns the number of conflicts (i.e. the number of (A,B) pairs)
     public int size(){
-        if(conflictMap.isEmpty()){
-            return 0;
-        } else {
-            return findMinimalBicliqueEdgeCover().size();
-        }
+        return getStatistics().getConflictsCount();
     }
 
     // Returns the size of the largest conflict: max(|A| + |B|)
     public int maxConflictSize() {
-        if (conflictMap.isEmpty()) {
-            return 0;
-        }
-
-        Set<Biclique> bicliques = findMinimalBicliqueEdgeCover();
-        return bicliques.stream()
-                .mapToInt(clique -> clique.getA().size() + clique.getB().size())
-                .max()
-                .orElse(0);
+        return getStatistics().getMaxConflictSize();
     }
 
     // Returns the sum of the size of all conflicts: Σ(|A| + |B|)
     public int getTotalNumberOfConflictingEvents() {
-        if (conflictMap.isEmpty()) {
-            return 0;
-        }
+        return getStatistics().getTotalNumberOfConflictingEvents();
+    }
 
-        Set<Biclique> bicliques = findMinimalBicliqueEdgeCover();
-        return bicliques.stream()
-                .mapToInt(clique -> clique.getA().size() + clique.getB().size())
-                .sum();
+    // All the conflict metrics, computed in one pass over the (cached) biclique cover
+    public ConflictStatistics getStatistics() {
+        if (statistics == null) {
+            statistics = ConflictStatistics.of(findMinimalBicliqueEdgeCover());
+        }
+        return statistics;
     }
 
     @Override
@@ -135,135 +151,30 @@ public class ConflictSet {
 
 
     public Set<Set<Event>> findMaximalCliques(Set<Event> events) {
-        Set<Set<Event>> maximalCliques = new HashSet<>();
-        bronKerbosch(new HashSet<>(), new HashSet<>(events), new HashSet<>(), maximalCliques);
-        return maximalCliques;
+        return getMaximalCliqueFinder().findMaximalCliques(events);
     }
 
-    private void bronKerbosch(Set<Event> R, Set<Event> P, Set<Event> X, Set<Set<Event>> maximalCliques) {
-        if (P.isEmpty() && X.isEmpty()) {
-            maximalCliques.add(new HashSet<>(R));
-            return;
-        }
-        Event pivot = selectPivot(P, X);
-        Set<Event> nonNeighbors = new HashSet<>(P);
-        if (pivot != null) {
-            nonNeighbors.removeAll(getConflicts(pivot));
-        }
-        for (Event v : new HashSet<>(nonNeighbors)) {
-            Set<Event> newR = new HashSet<>(R);
-            newR.add(v);
-            Set<Event> vConflicts = getConflicts(v);
-            Set<Event> newP = new HashSet<>(P);
-            newP.retainAll(vConflicts);
-            Set<Event> newX = new HashSet<>(X);
-            newX.retainAll(vConflicts);
-            bronKerbosch(newR, newP, newX, maximalCliques);
-            P.remove(v);
-            X.add(v);
-        }
-    }
-
-    private Event selectPivot(Set<Event> P, Set<Event> X) {
-        Set<Event> unionPX = new HashSet<>(P);
-        unionPX.addAll(X);
-        Event bestPivot = null;
-        int maxNeighbors = -1;
-        for (Event v : unionPX) {
-            int neighbors = getConflicts(v).size();
-            if (neighbors > maxNeighbors) {
-                maxNeighbors = neighbors;
-                bestPivot = v;
-            }
+    // Snapshot of the conflict graph answering clique queries, rebuilt after the next addition of a conflict
+    public MaximalCliqueFinder getMaximalCliqueFinder() {
+        if (cliqueFinder == null) {
+            cliqueFinder = new MaximalCliqueFinder(conflictMap);
         }
-        return bestPivot;
+        return cliqueFinder;
     }
 
+    // The cover is computed once and reused until the next addition of a conflict
     public Set<Biclique> findMinimalBicliqueEdgeCover() {
-        Set<Event> allEvents = getAllEvents();
-        Set<Edge> uncoveredEdges = new HashSet<>();
-
-        // Step 1: create set of all edges in the conflict graph
-        for (Event e1 : allEvents) {
-            for (Event e2 : getConflicts(e1)) {
-                if (e1.hashCode() < e2.hashCode()) { // avoid duplicates
-                    uncoveredEdges.add(new Edge(e1, e2));
-                }
-            }
+        if (bicliqueCover == null) {
+            bicliqueCover = Collections.unmodifiableSet(computeMinimalBicliqueEdgeCover());
         }
-
-        Set<Biclique> bicliqueCover = new HashSet<>();
-
-        while (!uncoveredEdges.isEmpty()) {
-            // Step 2: pick a candidate edge
-            Edge seed = uncoveredEdges.iterator().next();
-            Set<Event> left = new HashSet<>();
-            Set<Event> right = new HashSet<>();
-            left.add(seed.e1);
-            right.add(seed.e2);
-
-            // Step 3: expand both sides
-            Set<Event> leftCandidates = new HashSet<>(getConflicts(seed.e2));
-            leftCandidates.retainAll(allEvents);
-            for (Event e : leftCandidates) {
-                if (areAllInConflict(e, right)) {
-                    left.add(e);
-                }
-            }
-
-            Set<Event> rightCandidates = new HashSet<>(getConflicts(seed.e1));
-            rightCandidates.retainAll(allEvents);
-            for (Event e : rightCandidates) {
-                if (areAllInConflict(e, left)) {
-                    right.add(e);
-                }
-            }
-
-            // Step 4: get edges of this biclique
-            Set<Edge> bicliqueEdges = new HashSet<>();
-            for (Event a : left) {
-                for (Event b : right) {
-                    if (areInConflict(a, b)) {
-                        bicliqueEdges.add(new Edge(a, b));
-                    }
-                }
-            }
-
-            // Step 5: register this biclique as a cover component
-            bicliqueCover.add(new Biclique(left, right));
-
-            // Step 6: remove covered edges
-            uncoveredEdges.removeAll(bicliqueEdges);
-        }
-
         return bicliqueCover;
     }
 
-    private boolean areAllInConflict(Event e, Set<Event> group) {
-        for (Event other : group) {
-            if (!areInConflict(e, other)) return false;
-        }
-        return true;
-    }
-
-    private static class Edge {
-        final Event e1, e2;
-
-        Edge(Event e1, Event e2) {
-            this.e1 = e1;
-            this.e2 = e2;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (!(o instanceof Edge other)) return false;
-            return (e1.equals(other.e1) && e2.equals(other.e2)) || (e1.equals(other.e2) && e2.equals(other.e1));
-        }
-
-        @Override
-        public int hashCode() {
-            return e1.hashCode() + e2.hashCode(); // order-independent
+    private Set<Biclique> computeMinimalBicliqueEdgeCover() {
+        if (conflictMap.isEmpty()) {
+            return Collections.emptySet();
         }
+        return new LinkedHashSet<>(new BicliqueCoverFinder(conflictMap).findCover(coverStrategy));
     }
 
     public static class Biclique {
@@ -0,0 +1,76 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm;
+
+import java.util.Collection;
+
+// Snapshot of the conflict metrics of a biclique cover, computed in a single pass
+public final class ConflictStatistics {
+
+    public static final ConflictStatistics EMPTY = new ConflictStatistics(0, 0, 0);
+
+    private final int conflictsCount;
+    private final int maxConflictSize;
+    private final int totalNumberOfConflictingEvents;
+
+    private ConflictStatistics(int conflictsCount, int maxConflictSize, int totalNumberOfConflictingEvents) {
+        this.conflictsCount = conflictsCount;
+        this.maxConflictSize = maxConflictSize;
+        this.totalNumberOfConflictingEvents = totalNumberOfConflictingEvents;
+    }
+
+    public static ConflictStatistics of(Collection<ConflictSet.Biclique> cover) {
+        int max = 0;
+        int total = 0;
+        for (ConflictSet.Biclique clique : cover) {
+            int size = clique.getA().size() + clique.getB().size();
+            max = Math.max(max, size);
+            total += size;
+        }
+        return new ConflictStatistics(cover.size(), max, total);
+    }
+
+    // Metrics of the union of two disjoint covers (e.g. the conflicts of two features)
+    public ConflictStatistics merge(ConflictStatistics other) {
+        return new ConflictStatistics(this.conflictsCount + other.conflictsCount,
+                Math.max(this.maxConflictSize, other.maxConflictSize),
+                this.totalNumberOfConflictingEvents + other.totalNumberOfConflictingEvents);
+    }
+
+    // Number of conflicts (i.e. the number of (A,B) pairs)
+    public int getConflictsCount() {
+        return conflictsCount;
+    }
+
+    // Size of the largest conflict: max(|A| + |B|)
+    public int getMaxConflictSize() {
+        return maxConflictSize;
+    }
+
+    // Sum of the size of all conflicts: Σ(|A| + |B|)
+    public int getTotalNumberOfConflictingEvents() {
+        return totalNumberOfConflictingEvents;
+    }
+
+    @Override
+    public String toString() {
+        return "ConflictStatistics{conflicts=" + conflictsCount + ", maxConflictSize=" + maxConflictSize
+                + ", totalNumberOfConflictingEvents=" + totalNumberOfConflictingEvents + '}';
+    }
+}
@@ -21,39 +21,58 @@ package uk.kcl.info.bfm;
 import java.util.*;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.*;
+import uk.kcl.info.bfm.configuration.BitSetConfigurationEnumerator;
+import uk.kcl.info.bfm.configuration.ConfigurationEnumerationStrategy;
+import uk.kcl.info.bfm.configuration.EnumerationStatistics;
+import uk.kcl.info.bfm.configuration.ParallelConfigurationExplorer;
 
 public class DefaultBundleEventStructure implements BundleEventStructure{
 
-    private final Map<String, Event> events;
+    private final EventRegistry events;
     private final Set<CausalityRelation> allCausalities;
     private final ConflictSet allConflicts;
     private final Table<Set<Event>, Event, CausalityRelation> causalities;
+    // outgoingCausalities[e] = all X ↦ f such as e ∈ X
+    private final SetMultimap<Event, CausalityRelation> outgoingCausalities;
+    private ConfigurationEnumerationStrategy enumerationStrategy = ConfigurationEnumerationStrategy.DUPLICATE_FREE;
+    protected EnumerationStatistics enumerationStatistics = new EnumerationStatistics();
+    private int enumerationParallelism = 1;
+    private int enumerationSplitDepth = ParallelConfigurationExplorer.DEFAULT_SPLIT_DEPTH;
 
     protected DefaultBundleEventStructure() {
-        this.events = new HashMap<>();
+        this.events = new EventRegistry();
         this.allCausalities = new HashSet<>();
         this.allConflicts = new ConflictSet();
         this.causalities = HashBasedTable.create();
+        this.outgoingCausalities = LinkedHashMultimap.create();
     }
 
     protected Event addEvent(String eventName) {
-        return this.events.computeIfAbsent(eventName, Event::new);
+        return this.events.intern(eventName);
     }
 
     protected CausalityRelation addCausality(Set<Event> bundle, Event target) {
         Preconditions.checkNotNull(bundle, "Bundle may not be null!");
         Preconditions.checkNotNull(target, "Targeted event may not be null!");
-        Preconditions.checkArgument(this.events.containsValue(target), "Event does not belong to this bundle event structure!");
-        Preconditions.checkArgument(this.events.values().containsAll(bundle), "Some events in the bundle do not belong to this event structure!");
+        Preconditions.checkArgument(this.events.contains(target), "Event does not belong to this bundle event structure!");
+        Preconditions.checkArgument(bundle.stream().allMatch(this.events::contains), "Some events in the bundle do not belong to this event structure!");
 
         CausalityRelation causality = this.getCausality(bundle, target);
 
         if (causality == null) {
-            causality = new CausalityRelation(bundle, target);
+            // Store the registered instances
+            Set<Event> registeredBundle = new HashSet<>();
+            for (Event event : bundle) {
+                registeredBundle.add(this.events.get(event));
+            }
+            causality = new CausalityRelation(registeredBundle, this.events.get(target));
             if (!this.causalities.contains(bundle, target)) {
                 this.causalities.put(bundle, target, causality);
             }
             this.allCausalities.add(causality);
+            for (Event event : causality.getBundle()) {
+                this.outgoingCausalities.put(event, causality);
+            }
         }
 
         return causality;
@@ -64,6 +83,10 @@ public class DefaultBundleEventStructure implements BundleEventStructure{
         return addCausality(causality.getBundle(), causality.getTarget());
     }
 
+    public EventRegistry getEventRegistry() {
+        return this.events;
+    }
+
     protected ConflictSet getConflictSet(){
         return this.allConflicts;
     }
@@ -77,12 +100,12 @@ public class DefaultBundleEventStructure implements BundleEventStructure{
 
     @Override
     public Iterator<Event> events() {
-        return this.events.values().iterator();
+        return this.events.getEvents().iterator();
     }
 
     @Override
     public List<Event> getAllEvents() {
-        return this.events.values().stream().toList();
+        return this.events.getEvents();
     }
 
     @Override
@@ -107,30 +130,12 @@ public class DefaultBundleEventStructure implements BundleEventStructure{
 
     @Override
     public Iterator<CausalityRelation> getOutgoingCausalities(Event event) {
-
-        Set<CausalityRelation> causalities = new HashSet<>();
-
-        for(CausalityRelation causality: this.allCausalities){
-            if(causality.getBundle().contains(event)){
-                causalities.add(causality);
-            }
-        }
-
-        return Iterables.concat(causalities).iterator();
+        return Iterators.unmodifiableIterator(this.outgoingCausalities.get(event).iterator());
     }
 
     @Override
     public int getOutgoingCausalityCount(Event event) {
-
-        Set<CausalityRelation> causalities = new HashSet<>();
-
-        for(CausalityRelation causality: this.allCausalities){
-            if(causality.getBundle().contains(event)){
-                causalities.add(causality);
-            }
-        }
-
-        return causalities.size();
+        return this.outgoingCausalities.get(event).size();
     }
 
     @Override
@@ -152,7 +157,7 @@ public class DefaultBundleEventStructure implements BundleEventStructure{
     public Set<Event> getInitialEvents() {
 
         Set<Event> events = new HashSet<>();
-        for(Event event: this.events.values()){
+        for(Event event: this.events.getEvents()){
             if(!this.causalities.containsColumn(event)){
                 events.add(event);
             }
@@ -180,36 +185,52 @@ public class DefaultBundleEventStructure implements BundleEventStructure{
         return true;
     }
 
+    public ConfigurationEnumerationStrategy getEnumerationStrategy() {
+        return enumerationStrategy;
+    }
+
+    public void setEnumerationStrategy(ConfigurationEnumerationStrategy enumerationStrategy) {
+        Preconditions.checkNotNull(enumerationStrategy, "Enumeration strategy may not be null!");
+        this.enumerationStrategy = enumerationStrategy;
+    }
+
+    public int getEnumerationParallelism() {
+        return enumerationParallelism;
+    }
+
+    /**
+     * Explores the configurations with the given number of threads, splitting the search tree into parallel tasks
+     * up to the given depth. Only applies to the duplicate-free strategy.
+     */
+    public void setEnumerationParallelism(int parallelism, int splitDepth) {
+        Preconditions.checkArgument(parallelism > 0, "Parallelism should be strictly positive!");
+        Preconditions.checkArgument(splitDepth >= 0, "Split depth may not be negative!");
+        this.enumerationParallelism = parallelism;
+        this.enumerationSplitDepth = splitDepth;
+    }
+
+    // Statistics of the last call to getAllConfigurations()
+    public EnumerationStatistics getEnumerationStatistics() {
+        return enumerationStatistics;
+    }
+
     @Override
     public TreeMap<Integer, Set<Set<Event>>> getAllConfigurations() {
-        TreeMap<Integer, Set<Set<Event>>> configurationsBySize = new TreeMap<>();
-        buildConfigurations(new LinkedHashSet<>(), new ArrayList<>(this.events.values()), configurationsBySize);
+        if (this.enumerationParallelism > 1 && this.enumerationStrategy == ConfigurationEnumerationStrategy.DUPLICATE_FREE) {
+            ParallelConfigurationExplorer explorer = new ParallelConfigurationExplorer(this, this.enumerationParallelism, this.enumerationSplitDepth);
+            TreeMap<Integer, Set<Set<Event>>> configurationsBySize = explorer.getAllConfigurations();
+            this.enumerationStatistics = explorer.getStatistics();
+            return configurationsBySize;
+        }
+        BitSetConfigurationEnumerator enumerator = new BitSetConfigurationEnumerator(this, this.enumerationStrategy);
+        TreeMap<Integer, Set<Set<Event>>> configurationsBySize = enumerator.getAllConfigurations();
+        this.enumerationStatistics = enumerator.getStatistics();
         return configurationsBySize;
     }
 
-    private void buildConfigurations(Set<Event> currentConfig, List<Event> remainingEvents, TreeMap<Integer, Set<Set<Event>>> configurationsBySize) {
-
-        // Store a copy of the current configuration
-        Set<Event> configSet = new HashSet<>(currentConfig);
-        // Add to TreeMap based on its size
-        configurationsBySize.computeIfAbsent(configSet.size(), k -> new HashSet<>()).add(configSet);
-
-        // Iterate over a new list (copy of remainingEvents) to avoid ConcurrentModificationException
-        List<Event> remainingEventsList = new ArrayList<>(remainingEvents);
-        for (Event e : remainingEventsList) {
-            if (isConflictFree(e, currentConfig) && respectsCausality(e, currentConfig)) {
-                // If both conditions are satisfied, add the event to the current configuration.
-                currentConfig.add(e);
-                // Remove event 'e' from remaining events to prevent re-selection in this configuration.
-                remainingEvents.remove(e);
-                // Recursively build configurations with the updated current configuration and remaining events.
-                buildConfigurations(currentConfig, remainingEvents, configurationsBySize);
-                // Backtrack: Remove event 'e' from the current configuration to explore other possible configurations.
-                currentConfig.remove(e);
-                // Add event 'e' back to the remaining events for further exploration.
-                remainingEvents.add(e);
-            }
-        }
+    @Override
+    public Iterator<Set<Set<Event>>> getConfigurationLevels() {
+        return new BitSetConfigurationEnumerator(this).getConfigurationLevels();
     }
 
     @Override
@@ -237,6 +258,11 @@ public class DefaultBundleEventStructure implements BundleEventStructure{
         return allConflicts.getTotalNumberOfConflictingEvents();
     }
 
+    @Override
+    public ConflictStatistics getConflictStatistics() {
+        return allConflicts.getStatistics();
+    }
+
     @Override
     public boolean areInConflict(Event var1, Event var2){
         return this.allConflicts.areInConflict(var1, var2);
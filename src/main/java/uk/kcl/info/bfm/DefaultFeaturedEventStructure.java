@@ -21,14 +21,14 @@ package uk.kcl.info.bfm;
 import be.vibes.fexpression.FExpression;
 import be.vibes.fexpression.FExpressionVisitorWithReturn;
 import be.vibes.fexpression.Feature;
-import be.vibes.fexpression.configuration.ConfigurationSet;
 import be.vibes.fexpression.exception.FExpressionException;
 import be.vibes.solver.FeatureModel;
-import be.vibes.solver.exception.ConstraintSolvingException;
 import com.google.common.base.Preconditions;
+import uk.kcl.info.bfm.configuration.ConfigurationEnumerationStrategy;
+import uk.kcl.info.bfm.configuration.EnumerationStatistics;
+import uk.kcl.info.utils.fexpression.FExpressionCache;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class DefaultFeaturedEventStructure<F extends Feature<F>>  extends DefaultBundleEventStructure implements FeaturedEventStructure<F>{
 
@@ -38,17 +38,43 @@ public class DefaultFeaturedEventStructure<F extends Feature<F>>  extends Defaul
 
     private final FeatureModel<F> fm;
 
-    private Map<Set<Event>, FExpression> configFexpressions;
+    private ConfigurationGuards<?> configGuards;
+
+    private SolverSession solverSession;
+
+    private FExpressionCache fexpressionCache = new FExpressionCache();
+
+    private final GuardRepresentation guardRepresentation;
 
     public DefaultFeaturedEventStructure(FeatureModel<F> fm) {
+        this(fm, GuardRepresentation.FEXPRESSION);
+    }
+
+    public DefaultFeaturedEventStructure(FeatureModel<F> fm, GuardRepresentation guardRepresentation) {
         super();
         this.fm = fm;
+        this.guardRepresentation = Preconditions.checkNotNull(guardRepresentation, "Guard representation may not be null!");
     }
 
     public FeatureModel<F> getFm() {
         return fm;
     }
 
+    public GuardRepresentation getGuardRepresentation() {
+        return guardRepresentation;
+    }
+
+    @Override
+    public FExpressionCache getFExpressionCache() {
+        return fexpressionCache;
+    }
+
+    // Shares a cache between structures, e.g. with the converters working on this one
+    public void setFExpressionCache(FExpressionCache fexpressionCache) {
+        Preconditions.checkNotNull(fexpressionCache, "FExpression cache may not be null!");
+        this.fexpressionCache = fexpressionCache;
+    }
+
     @Override
     public F getFeature(Event event) {
         Preconditions.checkNotNull(event, "Event may not be null!");
@@ -68,7 +94,7 @@ public class DefaultFeaturedEventStructure<F extends Feature<F>>  extends Defaul
 
     @Override
     public FExpression getFExpression(Set<Event> config) {
-        return this.configFexpressions.get(config);
+        return this.configGuards == null ? null : this.configGuards.getFExpression(config);
     }
 
     private F getFeatureFromFM(F feature){
@@ -151,106 +177,33 @@ public class DefaultFeaturedEventStructure<F extends Feature<F>>  extends Defaul
     @Override
     public TreeMap<Integer, Set<Set<Event>>> getAllConfigurations() {
         TreeMap<Integer, Set<Set<Event>>> configurationsBySize = new TreeMap<>();
-        this.configFexpressions = new HashMap<>();
-        this.configFexpressions.put(new HashSet<>(), FExpression.trueValue());
+        ProductConfigurationWalk<?> walk = newWalk();
         try {
-            buildProductConfigurations(new LinkedHashSet<>(), new ArrayList<>(this.getAllEvents()), configurationsBySize);
-            this.fm.resetSolver();
-        } catch (ConstraintSolvingException e) {
-            throw new IllegalStateException("Error solving constraints: " + e.getMessage(), e.getCause());
-        }
-        return configurationsBySize;
-    }
-
-    private void buildProductConfigurations(Set<Event> currentConfig, List<Event> remainingEvents, TreeMap<Integer, Set<Set<Event>>> configurationsBySize) throws ConstraintSolvingException {
-
-        // Store a copy of the current configuration
-        Set<Event> configSet = new HashSet<>(currentConfig);
-        // Add to TreeMap based on its size
-        configurationsBySize.computeIfAbsent(configSet.size(), k -> new HashSet<>()).add(configSet);
-
-        // Create a copy of remaining events to avoid concurrent modification
-        List<Event> remainingEventsList = new ArrayList<>(remainingEvents);
-        for (Event e : remainingEventsList) {
-            if (isConflictFree(e, currentConfig)) {
-                List<FExpression> products = getValidProducts(e, currentConfig); // The products containing e parent feature,  satisfying the fexpr associated to e AND the fexpr associated to currentConfig
-                for (FExpression productFExp : products) {
-                    if (respectsCausality(e, currentConfig, productFExp)) {
-                        // If both conditions are satisfied, add the event to the current configuration.
-                        currentConfig.add(e);
-                        // Remove event 'e' from remaining events to prevent re-selection in this configuration.
-                        remainingEvents.remove(e);
-                        // Concatenate FExpression
-                        this.configFexpressions.merge(new HashSet<>(currentConfig), productFExp, (oldValue, newValue) -> oldValue.or(newValue).applySimplification().toCnf());
-                        // Recursively build configurations with the updated current configuration and remaining events.
-                        buildProductConfigurations(currentConfig, remainingEvents, configurationsBySize);
-                        // Backtrack: Remove event 'e' from the current configuration to explore other possible configurations.
-                        currentConfig.remove(e);
-                        // Add event 'e' back to the remaining events for further exploration.
-                        remainingEvents.add(e);
-                    }
-                }
+            if (this.getEnumerationStrategy() == ConfigurationEnumerationStrategy.ALL_LINEARISATIONS) {
+                walk.buildAllLinearisations(new LinkedHashSet<>(), new ArrayList<>(this.getAllEvents()), configurationsBySize);
+            } else {
+                walk.buildConfigurations(configurationsBySize);
             }
+        } finally {
+            this.solverSession.close();
         }
+        return configurationsBySize;
     }
 
-    protected boolean respectsCausality(Event e, Set<Event> config, FExpression productFexpr) {
-        Set<Set<Event>> causes = this.getAllBundles(e); // All X such as X ↦ e
-
-        for (Set<Event> bundle : causes) {
-
-            // Restrict bundle to only events whose features are in the product
-            Set<Event> restrictedBundle = bundle.stream()
-                    .filter(event -> {
-                        FExpression fexpr = this.getFExpression(event).and(productFexpr);
-                        return !fexpr.applySimplification().isFalse();
-                    })
-                    .collect(Collectors.toSet());
-
-            // If the intersection is empty, causality is not respected
-            if (!restrictedBundle.isEmpty() & Collections.disjoint(config, restrictedBundle)) { // X inter {𝑒1, . . . , 𝑒𝑖−1} = ∅
-                return false;
-            }
-        }
-        return true;
+    /**
+     * Streams the configurations level by level. While iterating, {@link #getFExpression(Set)} answers for the
+     * configurations of the last two levels returned: older feature expressions are released.
+     */
+    @Override
+    public Iterator<Set<Set<Event>>> getConfigurationLevels() {
+        return newWalk().getConfigurationLevels(this.solverSession::close);
     }
 
-    private List<FExpression> getValidProducts(Event event, Set<Event> config) {
-
-        Collection<F> allFeatures = this.fm.getFeatures();
-        FExpression configFexpr = this.configFexpressions.get(config);
-
-        FExpression constraint = this.getFExpression(event).and(configFexpr);
-        ConfigurationSet allProducts = new ConfigurationSet(this.fm, constraint);
-
-        List<FExpression> allFExps = allProducts.stream().map(product -> {
-            // Construct the product feature expression
-            FExpression productFExp = FExpression.trueValue();
-
-            List<F> featuresTMP = new ArrayList<>();
-            F f1 = null;
-            for (Feature<?> f : product) { //TODO: To remove once Feature.hashcode() is debugged
-                for(F f2: this.fm.getFeatures()){
-                    if (f.getFeatureName().equals(f2.getFeatureName())){
-                       f1 = f2;
-                    }
-                }
-                assert (f1 != null);
-                featuresTMP.add(f1);
-            }
-
-            for (F f : allFeatures) {
-                FExpression fFexpr= new FExpression(f);
-                if(featuresTMP.contains(f)){
-                //if(product.isSelected(f)){
-                    productFExp.andWith(fFexpr);
-                } else {
-                    productFExp.andWith(fFexpr.not());
-                }
-            }
-            return productFExp.applySimplification();
-        }).toList();
-
-        return allFExps;
+    // Starts an enumeration: fresh statistics, solver session and guards
+    private ProductConfigurationWalk<?> newWalk() {
+        this.enumerationStatistics = new EnumerationStatistics();
+        this.solverSession = new SolverSession(this.fm, this.enumerationStatistics);
+        this.configGuards = ConfigurationGuards.create(this.guardRepresentation, this.fm, this, this.solverSession, this.fexpressionCache);
+        return new ProductConfigurationWalk<>(this, this.configGuards, this.enumerationStatistics, ProductEnumeration.PER_PRODUCT);
     }
 }
@@ -25,16 +25,33 @@ public class Event {
     public static final String EPSILON_ACTION = "epsilon";
     static final Event EPSILON = new Event("epsilon");
     private final String name;
+    // Registry that created this event and id of the event in it, if any
+    private final EventRegistry registry;
+    private final int id;
 
     public Event(String name) {
+        this(name, null, -1);
+    }
+
+    Event(String name, EventRegistry registry, int id) {
         Preconditions.checkNotNull(name, "Name may not be null!");
         this.name = name;
+        this.registry = registry;
+        this.id = id;
     }
 
     public String getName() {
         return this.name;
     }
 
+    EventRegistry getRegistry() {
+        return this.registry;
+    }
+
+    int getId() {
+        return this.id;
+    }
+
     public String toString() {
         return "Event{name=" + this.name + '}';
     }
@@ -0,0 +1,86 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm;
+
+import com.google.common.base.Preconditions;
+
+import java.util.*;
+
+/**
+ * Interns the events of a structure: one instance per name, numbered densely (0..n-1) in order of registration.
+ * Events created by a registry carry their id, so that {@link #getId(Event)} is a field read for them and sets of
+ * events can be stored as arrays or bit sets indexed by id.
+ */
+public class EventRegistry {
+
+    private final Map<String, Event> byName = new HashMap<>();
+    private final List<Event> byId = new ArrayList<>();
+    private final List<Event> view = Collections.unmodifiableList(byId);
+
+    // The event with this name, registered if needed
+    public Event intern(String name) {
+        Preconditions.checkNotNull(name, "Name may not be null!");
+        Event event = byName.get(name);
+        if (event == null) {
+            event = new Event(name, this, byId.size());
+            byName.put(name, event);
+            byId.add(event);
+        }
+        return event;
+    }
+
+    // The registered instance equal to the event, registered if needed
+    public Event intern(Event event) {
+        Preconditions.checkNotNull(event, "Event may not be null!");
+        return event.getRegistry() == this ? event : intern(event.getName());
+    }
+
+    // The registered instance equal to the event, or null
+    public Event get(Event event) {
+        Preconditions.checkNotNull(event, "Event may not be null!");
+        return event.getRegistry() == this ? event : byName.get(event.getName());
+    }
+
+    public Event get(String name) {
+        return byName.get(name);
+    }
+
+    public Event get(int id) {
+        return byId.get(id);
+    }
+
+    public boolean contains(Event event) {
+        return get(event) != null;
+    }
+
+    // The id of the event, or -1 if it is not registered
+    public int getId(Event event) {
+        Event registered = get(event);
+        return registered == null ? -1 : registered.getId();
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    // Unmodifiable view of the registered events, by id
+    public List<Event> getEvents() {
+        return view;
+    }
+}
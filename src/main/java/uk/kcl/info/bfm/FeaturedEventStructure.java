@@ -20,6 +20,8 @@ package uk.kcl.info.bfm;
 
 import be.vibes.fexpression.FExpression;
 import be.vibes.fexpression.Feature;
+import uk.kcl.info.utils.fexpression.FExpressionCache;
+
 import java.util.Set;
 
 public interface FeaturedEventStructure<F extends Feature<F>> extends BundleEventStructure {
@@ -27,4 +29,7 @@ public interface FeaturedEventStructure<F extends Feature<F>> extends BundleEven
     F getFeature(Event var1);
     FExpression getFExpression(Event var1);
     FExpression getFExpression(Set<Event> config);
+
+    // Cache used by the structure to simplify its feature expressions, to be shared by the code working on them
+    FExpressionCache getFExpressionCache();
 }
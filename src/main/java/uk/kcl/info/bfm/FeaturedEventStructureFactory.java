@@ -27,6 +27,10 @@ public class FeaturedEventStructureFactory extends BundleEventStructureFactory{
         super(new DefaultFeaturedEventStructure<>(fm));
     }
 
+    public FeaturedEventStructureFactory(FeatureModel<?> fm, GuardRepresentation guardRepresentation) {
+        super(new DefaultFeaturedEventStructure<>(fm, guardRepresentation));
+    }
+
     @Override
     public void addEvent(String event) {
         throw new UnsupportedOperationException("FES doesn't allow to add an event if not associated with a feature.");
@@ -0,0 +1,30 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm;
+
+/**
+ * How the guards of the configurations of a featured event structure are represented while they are enumerated.
+ */
+public enum GuardRepresentation {
+    // Simplified feature expressions, satisfiability is checked by the solver
+    FEXPRESSION,
+    // BDDs of a manager, ordered as the feature tree. The feature model is compiled once into a BDD, then
+    // configurations are extended without the solver; feature expressions are only decoded when requested
+    BDD
+}
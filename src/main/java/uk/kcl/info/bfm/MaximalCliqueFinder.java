@@ -0,0 +1,200 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enumerates the maximal cliques of sub-graphs of a conflict graph with the Bron–Kerbosch algorithm on bit sets, using
+ * Tomita pivoting and a degeneracy ordering of the top-level vertices. The conflict graph is copied when the finder is
+ * built, so a finder can be shared between threads; results are memoised per set of events.
+ */
+public class MaximalCliqueFinder {
+
+    private final Event[] events;
+    private final Map<Event, Integer> ids;
+    private final int words;
+    private final long[][] adjacency;
+    private final Map<Set<Event>, Set<Set<Event>>> cache = new ConcurrentHashMap<>();
+
+    MaximalCliqueFinder(Map<Event, Set<Event>> conflictMap) {
+        Set<Event> allEvents = new TreeSet<>(Comparator.comparing(Event::getName));
+        for (Map.Entry<Event, Set<Event>> entry : conflictMap.entrySet()) {
+            allEvents.add(entry.getKey());
+            allEvents.addAll(entry.getValue());
+        }
+        this.events = allEvents.toArray(new Event[0]);
+        this.ids = new HashMap<>();
+        for (int i = 0; i < events.length; i++) {
+            ids.put(events[i], i);
+        }
+
+        this.words = (events.length + 63) >>> 6;
+        this.adjacency = new long[events.length][words];
+        for (Map.Entry<Event, Set<Event>> entry : conflictMap.entrySet()) {
+            int e1 = ids.get(entry.getKey());
+            for (Event other : entry.getValue()) {
+                int e2 = ids.get(other);
+                adjacency[e1][e2 >>> 6] |= 1L << e2;
+                adjacency[e2][e1 >>> 6] |= 1L << e1;
+            }
+        }
+    }
+
+    // Maximal cliques of the conflict graph restricted to events; events without conflicts are singleton cliques
+    public Set<Set<Event>> findMaximalCliques(Set<Event> events) {
+        return cache.computeIfAbsent(Set.copyOf(events), this::computeMaximalCliques);
+    }
+
+    private Set<Set<Event>> computeMaximalCliques(Set<Event> subset) {
+        Set<Set<Event>> maximalCliques = new HashSet<>();
+        if (subset.isEmpty()) {
+            // The empty clique is the only (maximal) one
+            maximalCliques.add(Collections.emptySet());
+            return Collections.unmodifiableSet(maximalCliques);
+        }
+        long[] candidates = new long[words];
+        for (Event e : subset) {
+            Integer id = ids.get(e);
+            if (id == null) {
+                maximalCliques.add(Collections.singleton(e));
+            } else {
+                candidates[id >>> 6] |= 1L << id;
+            }
+        }
+
+        // Each vertex v, in degeneracy order, starts the cliques containing v and only later vertices
+        long[] p = candidates.clone();
+        long[] x = new long[words];
+        for (int v : degeneracyOrder(candidates)) {
+            long[] r = new long[words];
+            r[v >>> 6] |= 1L << v;
+            bronKerbosch(r, and(p, adjacency[v]), and(x, adjacency[v]), maximalCliques);
+            p[v >>> 6] &= ~(1L << v);
+            x[v >>> 6] |= 1L << v;
+        }
+        return Collections.unmodifiableSet(maximalCliques);
+    }
+
+    private void bronKerbosch(long[] r, long[] p, long[] x, Set<Set<Event>> maximalCliques) {
+        if (isEmpty(p)) {
+            if (isEmpty(x)) {
+                maximalCliques.add(toEvents(r));
+            }
+            return;
+        }
+
+        // Tomita pivot: the vertex of P ∪ X with the most neighbours in P
+        int pivot = -1;
+        int best = -1;
+        for (int w = 0; w < words; w++) {
+            long word = p[w] | x[w];
+            while (word != 0) {
+                int u = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                int neighbours = countAnd(p, adjacency[u]);
+                if (neighbours > best) {
+                    best = neighbours;
+                    pivot = u;
+                }
+            }
+        }
+
+        for (int w = 0; w < words; w++) {
+            long word = p[w] & ~adjacency[pivot][w];
+            while (word != 0) {
+                int v = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                long[] newR = r.clone();
+                newR[w] |= 1L << v;
+                bronKerbosch(newR, and(p, adjacency[v]), and(x, adjacency[v]), maximalCliques);
+                p[w] &= ~(1L << v);
+                x[w] |= 1L << v;
+            }
+        }
+    }
+
+    // Repeatedly removes the vertex of minimum degree in the remaining sub-graph
+    private int[] degeneracyOrder(long[] vertices) {
+        long[] remaining = vertices.clone();
+        int count = 0;
+        for (long word : remaining) {
+            count += Long.bitCount(word);
+        }
+
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            int min = -1;
+            int minDegree = Integer.MAX_VALUE;
+            for (int w = 0; w < words; w++) {
+                long word = remaining[w];
+                while (word != 0) {
+                    int v = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    int degree = countAnd(remaining, adjacency[v]);
+                    if (degree < minDegree) {
+                        minDegree = degree;
+                        min = v;
+                    }
+                }
+            }
+            order[i] = min;
+            remaining[min >>> 6] &= ~(1L << min);
+        }
+        return order;
+    }
+
+    private Set<Event> toEvents(long[] mask) {
+        Set<Event> clique = new HashSet<>();
+        for (int w = 0; w < words; w++) {
+            long word = mask[w];
+            while (word != 0) {
+                clique.add(events[(w << 6) + Long.numberOfTrailingZeros(word)]);
+                word &= word - 1;
+            }
+        }
+        return Collections.unmodifiableSet(clique);
+    }
+
+    private static long[] and(long[] a, long[] b) {
+        long[] result = new long[a.length];
+        for (int w = 0; w < a.length; w++) {
+            result[w] = a[w] & b[w];
+        }
+        return result;
+    }
+
+    private static int countAnd(long[] a, long[] b) {
+        int count = 0;
+        for (int w = 0; w < a.length; w++) {
+            count += Long.bitCount(a[w] & b[w]);
+        }
+        return count;
+    }
+
+    private static boolean isEmpty(long[] mask) {
+        for (long word : mask) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm;
+
+import uk.kcl.info.bfm.configuration.EnumerationStatistics;
+
+import java.util.*;
+
+/**
+ * Walk over the configurations of a featured event structure, the guards being kept in the representation G of
+ * {@link ConfigurationGuards}. By default the walk is duplicate-free: the configurations of size n+1 are only reached
+ * from the configurations of size n, so once a level is processed the guards of the next one are complete and each
+ * configuration is expanded once, instead of once per product and linearisation reaching it.
+ */
+class ProductConfigurationWalk<G> {
+
+    private final FeaturedEventStructure<?> fes;
+    private final List<Event> events;
+    private final ConfigurationGuards<G> guards;
+    private final EnumerationStatistics statistics;
+    private final ProductEnumeration productEnumeration;
+
+    ProductConfigurationWalk(FeaturedEventStructure<?> fes, ConfigurationGuards<G> guards, EnumerationStatistics statistics,
+                             ProductEnumeration productEnumeration) {
+        this.fes = fes;
+        this.events = fes.getAllEvents();
+        this.guards = guards;
+        this.statistics = statistics;
+        this.productEnumeration = productEnumeration;
+    }
+
+    void buildConfigurations(TreeMap<Integer, Set<Set<Event>>> configurationsBySize) {
+        Set<Set<Event>> currentLevel = new HashSet<>();
+        currentLevel.add(new HashSet<>());
+        int size = 0;
+
+        while (!currentLevel.isEmpty()) {
+            configurationsBySize.put(size, currentLevel);
+            currentLevel = getNextLevel(currentLevel);
+            size++;
+        }
+    }
+
+    /*
+     * Lazy variant of buildConfigurations: a level is only computed when requested, and the guards of a level are
+     * released once the level after it has been returned, so at most three levels are kept by the guards.
+     */
+    Iterator<Set<Set<Event>>> getConfigurationLevels(Runnable onExhausted) {
+        return new Iterator<>() {
+
+            private Set<Set<Event>> previous = Collections.emptySet();
+            private Set<Set<Event>> current = Collections.emptySet();
+            private Set<Set<Event>> upcoming = new HashSet<>(Collections.singleton(new HashSet<>()));
+
+            @Override
+            public boolean hasNext() {
+                if (upcoming == null) {
+                    upcoming = getNextLevel(current);
+                    if (upcoming.isEmpty()) {
+                        onExhausted.run();
+                    }
+                }
+                return !upcoming.isEmpty();
+            }
+
+            @Override
+            public Set<Set<Event>> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                previous.forEach(guards::remove);
+                previous = current;
+                current = upcoming;
+                upcoming = null;
+                return current;
+            }
+        };
+    }
+
+    // Extends every configuration of currentLevel by one event, merging the products reaching each successor
+    Set<Set<Event>> getNextLevel(Set<Set<Event>> currentLevel) {
+
+        Set<Set<Event>> nextLevel = new HashSet<>();
+
+        for (Set<Event> config : currentLevel) {
+            statistics.recordVisit();
+            for (Event e : events) {
+                if (config.contains(e)) {
+                    continue;
+                }
+                for (G product : getExtensionGuards(e, config)) {
+                    Set<Event> successor = new HashSet<>(config);
+                    successor.add(e);
+                    if (!nextLevel.add(successor)) {
+                        // Already reached: only its guard grows
+                        statistics.recordAvoidedVisit();
+                    }
+                    guards.add(successor, product);
+                }
+            }
+        }
+
+        return nextLevel;
+    }
+
+    // Reference enumeration, following every linearisation of every configuration
+    void buildAllLinearisations(Set<Event> currentConfig, List<Event> remainingEvents, TreeMap<Integer, Set<Set<Event>>> configurationsBySize) {
+
+        // Store a copy of the current configuration
+        Set<Event> configSet = new HashSet<>(currentConfig);
+        // Add to TreeMap based on its size
+        configurationsBySize.computeIfAbsent(configSet.size(), k -> new HashSet<>()).add(configSet);
+        statistics.recordVisit();
+
+        // Create a copy of remaining events to avoid concurrent modification
+        List<Event> remainingEventsList = new ArrayList<>(remainingEvents);
+        for (Event e : remainingEventsList) {
+            // The products containing e parent feature, satisfying the fexpr associated to e AND the fexpr associated to currentConfig, and respecting causality
+            for (G product : getExtensionGuards(e, currentConfig)) {
+                // If both conditions are satisfied, add the event to the current configuration.
+                currentConfig.add(e);
+                // Remove event 'e' from remaining events to prevent re-selection in this configuration.
+                remainingEvents.remove(e);
+                // Concatenate the guards
+                guards.add(new HashSet<>(currentConfig), product);
+                // Recursively build configurations with the updated current configuration and remaining events.
+                buildAllLinearisations(currentConfig, remainingEvents, configurationsBySize);
+                // Backtrack: Remove event 'e' from the current configuration to explore other possible configurations.
+                currentConfig.remove(e);
+                // Add event 'e' back to the remaining events for further exploration.
+                remainingEvents.add(e);
+            }
+        }
+    }
+
+    // Guards under which e extends config: one per product in PER_PRODUCT mode, at most one in SYMBOLIC mode
+    List<G> getExtensionGuards(Event e, Set<Event> config) {
+        if (!isConflictFree(e, config)) {
+            return Collections.emptyList();
+        }
+        if (productEnumeration == ProductEnumeration.SYMBOLIC) {
+            G guard = getSymbolicExtensionGuard(e, config);
+            return guards.isSatisfiable(guard) ? Collections.singletonList(guard) : Collections.emptyList();
+        }
+        List<G> products = new ArrayList<>();
+        for (G product : guards.getProducts(guards.and(guards.encode(e), guards.get(config)))) {
+            if (respectsCausality(e, config, product)) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    private boolean isConflictFree(Event e, Set<Event> config) {
+        for (Event other : config) {
+            if (fes.areInConflict(e, other)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean respectsCausality(Event e, Set<Event> config, G product) {
+        for (Iterator<CausalityRelation> it = fes.getAllCausalitiesOfEvent(e); it.hasNext(); ) { // All X such as X ↦ e
+            boolean enabled = false;
+            boolean executed = false;
+            for (Event cause : it.next().getBundle()) {
+                // Only the events whose features are in the product
+                if (guards.areCompatible(guards.encode(cause), product)) {
+                    enabled = true;
+                    executed |= config.contains(cause);
+                }
+            }
+            // If the intersection is empty, causality is not respected
+            if (enabled && !executed) { // X inter {𝑒1, . . . , 𝑒𝑖−1} = ∅
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * A product respects X ↦ e in config iff it enables no event of X, or enables one in X ∩ config (see
+     * respectsCausality). The guard of e is the conjunction of these conditions with the guards of e and config.
+     */
+    private G getSymbolicExtensionGuard(Event e, Set<Event> config) {
+        G guard = guards.and(guards.encode(e), guards.get(config));
+        for (Iterator<CausalityRelation> it = fes.getAllCausalitiesOfEvent(e); it.hasNext(); ) {
+            G enabled = guards.falseValue();
+            G executed = guards.falseValue();
+            for (Event cause : it.next().getBundle()) {
+                enabled = guards.or(enabled, guards.encode(cause));
+                if (config.contains(cause)) {
+                    executed = guards.or(executed, guards.encode(cause));
+                }
+            }
+            guard = guards.and(guard, guards.or(guards.not(enabled), executed));
+        }
+        return guard;
+    }
+}
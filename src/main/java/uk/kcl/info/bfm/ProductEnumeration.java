@@ -0,0 +1,41 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm;
+
+/**
+ * How the products extending a configuration by an event are found while the configurations of a behavioral feature
+ * model are enumerated, or while the traces of a featured event structure are explored
+ * (see {@link uk.kcl.info.bfm.execution.FeaturedEventStructureExecutor}).
+ */
+public enum ProductEnumeration {
+
+    /**
+     * Enumerates the products satisfying the guards with the solver, and extends the configuration once per product
+     * respecting the causalities. Guards are disjunctions of products.
+     */
+    PER_PRODUCT,
+
+    /**
+     * Extends the configuration once, with the guard of all such products as a single expression. No product is
+     * enumerated: the guard is only checked for emptiness, by the solver with {@link GuardRepresentation#FEXPRESSION}
+     * guards, or against the compiled feature model with {@link GuardRepresentation#BDD} guards. Guards are equivalent
+     * to the ones of {@link #PER_PRODUCT} within the products of the feature model.
+     */
+    SYMBOLIC
+}
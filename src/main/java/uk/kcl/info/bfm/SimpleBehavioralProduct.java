@@ -53,10 +53,7 @@ public class SimpleBehavioralProduct implements BehavioralProduct {
         List<Event> events = new ArrayList<>();
         for(Event e: fes.getAllEvents()){
             if(product.isSelected(fes.getFeature(e))){ // 𝜆(𝑒) ∈ pr
-                FExpression fexpr1 = fes.getFExpression(e);
-                FExpression fexpr2 = productFexpr;
-                FExpression fexpr3 = fexpr1.and(fexpr2);
-                fexpr3.applySimplification();
+                // productFexpr is built for this call only: caching on it would never hit
                 if(!fes.getFExpression(e).and(productFexpr).applySimplification().isFalse()){ // pr |= 𝜈 (𝑒)
                     //Adding event
                     events.add(e);
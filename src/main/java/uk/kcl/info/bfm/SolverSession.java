@@ -0,0 +1,113 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm;
+
+import be.vibes.fexpression.FExpression;
+import be.vibes.fexpression.configuration.Configuration;
+import be.vibes.solver.ConstraintIdentifier;
+import be.vibes.solver.FeatureModel;
+import be.vibes.solver.SolverFacade;
+import be.vibes.solver.exception.ConstraintSolvingException;
+import com.google.common.base.Preconditions;
+import uk.kcl.info.bfm.configuration.EnumerationStatistics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Queries the solver of a feature model during an exploration. The feature model clauses stay loaded in the same
+ * solver for the whole session, and the guards of each query are pushed and popped on top of them, so the solver
+ * keeps what it learnt from one query to the next. Calls and solving time are recorded in the statistics of the
+ * exploration. Closing the session resets the solver.
+ */
+public class SolverSession implements AutoCloseable {
+
+    private final FeatureModel<?> fm;
+    private final SolverFacade solver;
+    private final EnumerationStatistics statistics;
+    private final Deque<ConstraintIdentifier> frames = new ArrayDeque<>();
+
+    public SolverSession(FeatureModel<?> fm, EnumerationStatistics statistics) {
+        this.fm = Preconditions.checkNotNull(fm, "Feature model may not be null!");
+        this.statistics = Preconditions.checkNotNull(statistics, "Statistics may not be null!");
+        this.solver = Preconditions.checkNotNull(fm.getSolver(), "Solver may not be null!");
+    }
+
+    public void push(FExpression constraint) {
+        Preconditions.checkNotNull(constraint, "Constraint may not be null!");
+        try {
+            frames.push(solver.addConstraint(constraint));
+        } catch (ConstraintSolvingException e) {
+            throw new IllegalStateException("Error solving constraints: " + e.getMessage(), e.getCause());
+        }
+    }
+
+    public void pop() {
+        Preconditions.checkState(!frames.isEmpty(), "No constraint to pop!");
+        try {
+            solver.removeConstraint(frames.pop());
+        } catch (ConstraintSolvingException e) {
+            throw new IllegalStateException("Error solving constraints: " + e.getMessage(), e.getCause());
+        }
+    }
+
+    // True iff some product of the feature model satisfies the pushed constraints and the assumption
+    public boolean isSatisfiable(FExpression assumption) {
+        push(assumption);
+        long start = System.nanoTime();
+        try {
+            return solver.isSatisfiable();
+        } catch (ConstraintSolvingException e) {
+            throw new IllegalStateException("Error solving constraints: " + e.getMessage(), e.getCause());
+        } finally {
+            statistics.recordSolverCall(System.nanoTime() - start);
+            pop();
+        }
+    }
+
+    // All products of the feature model satisfying the pushed constraints and the assumption
+    public List<Configuration> getSolutions(FExpression assumption) {
+        push(assumption);
+        long start = System.nanoTime();
+        try {
+            List<Configuration> solutions = new ArrayList<>();
+            for (Configuration product : solver) {
+                solutions.add(product);
+            }
+            return solutions;
+        } finally {
+            statistics.recordSolverCall(System.nanoTime() - start);
+            pop();
+        }
+    }
+
+    @Override
+    public void close() {
+        while (!frames.isEmpty()) {
+            pop();
+        }
+        try {
+            fm.resetSolver();
+        } catch (ConstraintSolvingException e) {
+            throw new IllegalStateException("Error solving constraints: " + e.getMessage(), e.getCause());
+        }
+    }
+}
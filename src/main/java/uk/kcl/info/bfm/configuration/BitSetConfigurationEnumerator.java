@@ -0,0 +1,333 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm.configuration;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterators;
+import uk.kcl.info.bfm.BundleEventStructure;
+import uk.kcl.info.bfm.CausalityRelation;
+import uk.kcl.info.bfm.Event;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Enumerates the configurations of a bundle event structure on bit masks. Events are interned to dense ids, and
+ * conflicts and bundles are stored as long[] masks, so that the conflict-freeness and causality checks of each
+ * extension are word-level AND operations.
+ */
+public class BitSetConfigurationEnumerator {
+
+    private final EventIndex index;
+    private final int words;
+    // conflicts[e] = all events in conflict with e
+    private final long[][] conflicts;
+    // bundles[e] = all X such as X ↦ e
+    private final long[][][] bundles;
+
+    private final ConfigurationEnumerationStrategy strategy;
+    private EnumerationStatistics statistics = new EnumerationStatistics();
+
+    public BitSetConfigurationEnumerator(BundleEventStructure bes) {
+        this(bes, ConfigurationEnumerationStrategy.DUPLICATE_FREE);
+    }
+
+    public BitSetConfigurationEnumerator(BundleEventStructure bes, ConfigurationEnumerationStrategy strategy) {
+        Preconditions.checkNotNull(bes, "Bundle event structure may not be null!");
+        Preconditions.checkNotNull(strategy, "Enumeration strategy may not be null!");
+        this.strategy = strategy;
+        this.index = new EventIndex(bes.getAllEvents());
+        this.words = BitMasks.words(index.size());
+        this.conflicts = new long[index.size()][];
+        this.bundles = new long[index.size()][][];
+
+        for (int id = 0; id < index.size(); id++) {
+            Event event = index.getEvent(id);
+
+            long[] row = new long[words];
+            for (Event other : bes.getAllConflictsOfEvent(event)) {
+                int otherId = index.getId(other);
+                if (otherId >= 0) {
+                    BitMasks.set(row, otherId);
+                }
+            }
+            this.conflicts[id] = row;
+
+            List<long[]> eventBundles = new ArrayList<>();
+            for (Iterator<CausalityRelation> it = bes.getAllCausalitiesOfEvent(event); it.hasNext(); ) {
+                long[] bundle = new long[words];
+                for (Event cause : it.next().getBundle()) {
+                    int causeId = index.getId(cause);
+                    if (causeId >= 0) {
+                        BitMasks.set(bundle, causeId);
+                    }
+                }
+                eventBundles.add(bundle);
+            }
+            this.bundles[id] = eventBundles.toArray(new long[0][]);
+        }
+    }
+
+    public EventIndex getEventIndex() {
+        return index;
+    }
+
+    public ConfigurationEnumerationStrategy getStrategy() {
+        return strategy;
+    }
+
+    // Statistics of the last enumeration
+    public EnumerationStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Returns all configurations, grouped by size, as bit sets over the ids of {@link #getEventIndex()}.
+     */
+    public TreeMap<Integer, Set<BitSet>> getAllConfigurationMasks() {
+        TreeMap<Integer, Set<BitSet>> configurationsBySize = new TreeMap<>();
+        this.statistics = new EnumerationStatistics();
+        if (strategy == ConfigurationEnumerationStrategy.ALL_LINEARISATIONS) {
+            buildConfigurations(new long[words], 0, configurationsBySize);
+        } else {
+            int[] position = new int[index.size()];
+            Arrays.fill(position, -1);
+            buildCanonicalConfigurations(new long[words], new int[index.size()], 0, position,
+                    configurationsBySize, k -> new HashSet<>(), statistics);
+        }
+        return configurationsBySize;
+    }
+
+    /**
+     * Returns all configurations, grouped by size, in the format of {@link BundleEventStructure#getAllConfigurations()}.
+     */
+    public TreeMap<Integer, Set<Set<Event>>> getAllConfigurations() {
+        return toEventSets(getAllConfigurationMasks());
+    }
+
+    /**
+     * Lazily produces the configurations level by level, by increasing size. Each level is computed from the previous
+     * one when requested, so only the level being extended is kept in memory.
+     */
+    public Iterator<Set<BitSet>> getConfigurationMaskLevels() {
+        return new Iterator<>() {
+
+            private Set<BitSet> current = null;
+            private Set<BitSet> upcoming = new HashSet<>(Collections.singleton(new BitSet()));
+
+            @Override
+            public boolean hasNext() {
+                if (upcoming == null) {
+                    upcoming = getNextLevel(current);
+                }
+                return !upcoming.isEmpty();
+            }
+
+            @Override
+            public Set<BitSet> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                current = upcoming;
+                upcoming = null;
+                return current;
+            }
+        };
+    }
+
+    /**
+     * Lazily produces the configurations level by level, in the format of {@link BundleEventStructure#getAllConfigurations()}.
+     */
+    public Iterator<Set<Set<Event>>> getConfigurationLevels() {
+        return Iterators.transform(getConfigurationMaskLevels(), this::toEventSets);
+    }
+
+    // All configurations c ∪ {e} such as c belongs to level and e is enabled in c
+    public Set<BitSet> getNextLevel(Set<BitSet> level) {
+        Set<BitSet> nextLevel = new HashSet<>();
+        long[] config = new long[words];
+        for (BitSet mask : level) {
+            Arrays.fill(config, 0L);
+            long[] maskWords = mask.toLongArray();
+            System.arraycopy(maskWords, 0, config, 0, maskWords.length);
+
+            for (int e = 0; e < index.size(); e++) {
+                if (!BitMasks.get(config, e) && isEnabled(e, config)) {
+                    BitSet successor = (BitSet) mask.clone();
+                    successor.set(e);
+                    nextLevel.add(successor);
+                }
+            }
+        }
+        return nextLevel;
+    }
+
+    /**
+     * Explores the configuration graph breadth-first and reports each configuration and each extension to the
+     * listener as soon as it is discovered. Only the ids of two adjacent levels are kept in memory.
+     *
+     * @return the number of configurations
+     */
+    public int exploreConfigurationGraph(ConfigurationGraphListener listener) {
+        Preconditions.checkNotNull(listener, "Listener may not be null!");
+        this.statistics = new EnumerationStatistics();
+
+        int nextId = 0;
+        Map<BitSet, Integer> currentLevel = new HashMap<>();
+        currentLevel.put(new BitSet(), nextId);
+        listener.onConfiguration(nextId++, new BitSet());
+
+        long[] config = new long[words];
+        while (!currentLevel.isEmpty()) {
+            Map<BitSet, Integer> nextLevel = new HashMap<>();
+            for (Map.Entry<BitSet, Integer> source : currentLevel.entrySet()) {
+                statistics.recordVisit();
+                Arrays.fill(config, 0L);
+                long[] maskWords = source.getKey().toLongArray();
+                System.arraycopy(maskWords, 0, config, 0, maskWords.length);
+
+                for (int e = 0; e < index.size(); e++) {
+                    if (!BitMasks.get(config, e) && isEnabled(e, config)) {
+                        BitSet successor = (BitSet) source.getKey().clone();
+                        successor.set(e);
+                        Integer target = nextLevel.get(successor);
+                        if (target == null) {
+                            target = nextId++;
+                            nextLevel.put(successor, target);
+                            listener.onConfiguration(target, successor);
+                        } else {
+                            statistics.recordAvoidedVisit();
+                        }
+                        listener.onExtension(source.getValue(), e, target);
+                    }
+                }
+            }
+            currentLevel = nextLevel;
+        }
+        return nextId;
+    }
+
+    public Set<Set<Event>> toEventSets(Set<BitSet> masks) {
+        Set<Set<Event>> configs = new HashSet<>();
+        for (BitSet mask : masks) {
+            configs.add(index.toEvents(mask));
+        }
+        return configs;
+    }
+
+    public TreeMap<Integer, Set<Set<Event>>> toEventSets(TreeMap<Integer, Set<BitSet>> masksBySize) {
+        TreeMap<Integer, Set<Set<Event>>> configurationsBySize = new TreeMap<>();
+        for (Map.Entry<Integer, Set<BitSet>> entry : masksBySize.entrySet()) {
+            configurationsBySize.put(entry.getKey(), toEventSets(entry.getValue()));
+        }
+        return configurationsBySize;
+    }
+
+    private void buildConfigurations(long[] currentConfig, int size, TreeMap<Integer, Set<BitSet>> configurationsBySize) {
+
+        // Store a copy of the current configuration, based on its size
+        configurationsBySize.computeIfAbsent(size, k -> new HashSet<>()).add(BitSet.valueOf(currentConfig));
+        statistics.recordVisit();
+
+        for (int e = 0; e < index.size(); e++) {
+            if (!BitMasks.get(currentConfig, e) && isEnabled(e, currentConfig)) {
+                BitMasks.set(currentConfig, e);
+                buildConfigurations(currentConfig, size + 1, configurationsBySize);
+                // Backtrack
+                BitMasks.clear(currentConfig, e);
+            }
+        }
+    }
+
+    /*
+     * Enabledness is monotone (an enabled event stays enabled when the configuration grows), so every configuration
+     * has exactly one canonical linearisation: the one always executing the enabled event with the smallest id.
+     * The walk only follows canonical linearisations, hence reaches every configuration exactly once.
+     * sequence[0..size-1] is the canonical linearisation of currentConfig and position[e] the index of e in it.
+     */
+    void buildCanonicalConfigurations(long[] currentConfig, int[] sequence, int size, int[] position,
+                                      Map<Integer, Set<BitSet>> configurationsBySize,
+                                      Function<Integer, Set<BitSet>> newLevel, EnumerationStatistics statistics) {
+
+        configurationsBySize.computeIfAbsent(size, newLevel).add(BitSet.valueOf(currentConfig));
+        statistics.recordVisit();
+
+        for (int e = 0; e < index.size(); e++) {
+            if (!BitMasks.get(currentConfig, e) && isEnabled(e, currentConfig)) {
+                if (!isCanonicalExtension(e, currentConfig, sequence, size, position)) {
+                    // currentConfig ∪ {e} is (or will be) reached through its canonical linearisation
+                    statistics.recordAvoidedVisit();
+                    continue;
+                }
+                BitMasks.set(currentConfig, e);
+                sequence[size] = e;
+                position[e] = size;
+                buildCanonicalConfigurations(currentConfig, sequence, size + 1, position, configurationsBySize, newLevel, statistics);
+                // Backtrack
+                position[e] = -1;
+                BitMasks.clear(currentConfig, e);
+            }
+        }
+    }
+
+    // sequence + e is canonical iff e is greater than every event executed since e became enabled
+    boolean isCanonicalExtension(int e, long[] config, int[] sequence, int size, int[] position) {
+        int enabledFrom = 0;
+        for (long[] bundle : bundles[e]) {
+            // e needs the first event of X ∩ config to have been executed
+            int first = Integer.MAX_VALUE;
+            for (int w = 0; w < bundle.length; w++) {
+                long word = bundle[w] & config[w];
+                while (word != 0) {
+                    int cause = (w << 6) + Long.numberOfTrailingZeros(word);
+                    first = Math.min(first, position[cause]);
+                    word &= word - 1;
+                }
+            }
+            enabledFrom = Math.max(enabledFrom, first + 1);
+        }
+        for (int i = enabledFrom; i < size; i++) {
+            if (sequence[i] > e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    int words() {
+        return words;
+    }
+
+    // e can extend config iff it is conflict free with config and every bundle X ↦ e intersects config
+    boolean isEnabled(int e, long[] config) {
+        if (BitMasks.intersects(conflicts[e], config)) {
+            return false;
+        }
+        for (long[] bundle : bundles[e]) {
+            if (!BitMasks.intersects(bundle, config)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm.configuration;
+
+/**
+ * How the configuration lattice of an event structure is walked.
+ */
+public enum ConfigurationEnumerationStrategy {
+
+    /**
+     * Follows every linearisation of every configuration: a configuration of size n is rebuilt up to n! times and
+     * only deduplicated when it is stored.
+     */
+    ALL_LINEARISATIONS,
+
+    /**
+     * Reaches every configuration once. Bundle event structures only extend a configuration along its canonical
+     * linearisation (the one always executing the enabled event with the smallest id first), featured event
+     * structures expand each configuration once, level by level, after its feature expression is complete.
+     */
+    DUPLICATE_FREE
+}
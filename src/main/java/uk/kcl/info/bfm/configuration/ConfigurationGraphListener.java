@@ -0,0 +1,34 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm.configuration;
+
+import java.util.BitSet;
+
+/**
+ * Receives the configuration graph of a bundle event structure while it is being explored. Configurations get dense
+ * ids in discovery order, the empty configuration being 0; a configuration is always reported before the first
+ * extension leading to it.
+ */
+public interface ConfigurationGraphListener {
+
+    void onConfiguration(int id, BitSet configuration);
+
+    // source --event--> target, event being an id of the enumerator's EventIndex
+    void onExtension(int source, int event, int target);
+}
@@ -0,0 +1,71 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm.configuration;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters collected while enumerating the configurations of an event structure. Safe to share between the workers
+ * of a parallel exploration.
+ */
+public class EnumerationStatistics {
+
+    private final LongAdder visits = new LongAdder();
+    private final LongAdder redundantVisitsAvoided = new LongAdder();
+    private final LongAdder solverCalls = new LongAdder();
+    private final LongAdder solverNanos = new LongAdder();
+
+    public void recordVisit() {
+        this.visits.increment();
+    }
+
+    public void recordAvoidedVisit() {
+        this.redundantVisitsAvoided.increment();
+    }
+
+    public void recordSolverCall(long nanos) {
+        this.solverCalls.increment();
+        this.solverNanos.add(nanos);
+    }
+
+    // Number of configurations reached (and expanded) by the walk
+    public long getVisits() {
+        return visits.sum();
+    }
+
+    // Number of extensions leading to an already reached configuration that were not explored again
+    public long getRedundantVisitsAvoided() {
+        return redundantVisitsAvoided.sum();
+    }
+
+    // Number of satisfiability checks and solution enumerations asked to the solver
+    public long getSolverCalls() {
+        return solverCalls.sum();
+    }
+
+    public long getSolverTimeNanos() {
+        return solverNanos.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "EnumerationStatistics{visits=" + getVisits() + ", redundantVisitsAvoided=" + getRedundantVisitsAvoided()
+                + ", solverCalls=" + getSolverCalls() + ", solverTimeMs=" + getSolverTimeNanos() / 1_000_000 + '}';
+    }
+}
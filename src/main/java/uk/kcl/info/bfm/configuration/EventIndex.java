@@ -0,0 +1,74 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm.configuration;
+
+import com.google.common.base.Preconditions;
+import uk.kcl.info.bfm.Event;
+
+import java.util.*;
+
+/**
+ * Interns the events of a structure to dense int ids (0..n-1), so that sets of events can be stored as bit masks.
+ */
+public class EventIndex {
+
+    private final Event[] events;
+    private final Map<Event, Integer> ids;
+
+    public EventIndex(Collection<Event> events) {
+        Preconditions.checkNotNull(events, "Events may not be null!");
+        this.events = new LinkedHashSet<>(events).toArray(new Event[0]);
+        this.ids = new HashMap<>();
+        for (int i = 0; i < this.events.length; i++) {
+            this.ids.put(this.events[i], i);
+        }
+    }
+
+    public int size() {
+        return this.events.length;
+    }
+
+    // Returns the id of the event, or -1 if it does not belong to this index
+    public int getId(Event event) {
+        Integer id = this.ids.get(event);
+        return id == null ? -1 : id;
+    }
+
+    public Event getEvent(int id) {
+        return this.events[id];
+    }
+
+    public BitSet toBitSet(Collection<Event> events) {
+        BitSet bits = new BitSet(this.events.length);
+        for (Event e : events) {
+            int id = getId(e);
+            Preconditions.checkArgument(id >= 0, e + " does not belong to this event index!");
+            bits.set(id);
+        }
+        return bits;
+    }
+
+    public Set<Event> toEvents(BitSet bits) {
+        Set<Event> config = new HashSet<>();
+        for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+            config.add(this.events[id]);
+        }
+        return config;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm.configuration;
+
+import com.google.common.base.Preconditions;
+import uk.kcl.info.bfm.BundleEventStructure;
+import uk.kcl.info.bfm.Event;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Explores the configurations of a bundle event structure on a {@link ForkJoinPool}. The canonical search tree of
+ * {@link BitSetConfigurationEnumerator} partitions the configurations, so its top levels are split into independent
+ * tasks (balanced by work stealing) and every subtree below the split depth is walked sequentially.
+ */
+public class ParallelConfigurationExplorer {
+
+    public static final int DEFAULT_SPLIT_DEPTH = 3;
+
+    private final BitSetConfigurationEnumerator enumerator;
+    private final int parallelism;
+    private final int splitDepth;
+    private EnumerationStatistics statistics = new EnumerationStatistics();
+
+    public ParallelConfigurationExplorer(BundleEventStructure bes) {
+        this(bes, Runtime.getRuntime().availableProcessors(), DEFAULT_SPLIT_DEPTH);
+    }
+
+    public ParallelConfigurationExplorer(BundleEventStructure bes, int parallelism, int splitDepth) {
+        Preconditions.checkArgument(parallelism > 0, "Parallelism should be strictly positive!");
+        Preconditions.checkArgument(splitDepth >= 0, "Split depth may not be negative!");
+        this.enumerator = new BitSetConfigurationEnumerator(bes, ConfigurationEnumerationStrategy.DUPLICATE_FREE);
+        this.parallelism = parallelism;
+        this.splitDepth = splitDepth;
+    }
+
+    public EventIndex getEventIndex() {
+        return enumerator.getEventIndex();
+    }
+
+    // Statistics of the last exploration
+    public EnumerationStatistics getStatistics() {
+        return statistics;
+    }
+
+    public TreeMap<Integer, Set<BitSet>> getAllConfigurationMasks() {
+        Map<Integer, Set<BitSet>> configurationsBySize = new ConcurrentHashMap<>();
+        this.statistics = new EnumerationStatistics();
+
+        int[] position = new int[enumerator.size()];
+        Arrays.fill(position, -1);
+        ExplorationTask root = new ExplorationTask(new long[enumerator.words()], new int[enumerator.size()], 0, position, configurationsBySize);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(root);
+        } finally {
+            pool.shutdown();
+        }
+
+        return new TreeMap<>(configurationsBySize);
+    }
+
+    public TreeMap<Integer, Set<Set<Event>>> getAllConfigurations() {
+        return enumerator.toEventSets(getAllConfigurationMasks());
+    }
+
+    private class ExplorationTask extends RecursiveAction {
+
+        private final long[] config;
+        private final int[] sequence;
+        private final int size;
+        private final int[] position;
+        private final Map<Integer, Set<BitSet>> configurationsBySize;
+
+        ExplorationTask(long[] config, int[] sequence, int size, int[] position, Map<Integer, Set<BitSet>> configurationsBySize) {
+            this.config = config;
+            this.sequence = sequence;
+            this.size = size;
+            this.position = position;
+            this.configurationsBySize = configurationsBySize;
+        }
+
+        @Override
+        protected void compute() {
+            if (size >= splitDepth) {
+                enumerator.buildCanonicalConfigurations(config, sequence, size, position, configurationsBySize,
+                        k -> ConcurrentHashMap.newKeySet(), statistics);
+                return;
+            }
+
+            configurationsBySize.computeIfAbsent(size, k -> ConcurrentHashMap.newKeySet()).add(BitSet.valueOf(config));
+            statistics.recordVisit();
+
+            // Each canonical extension roots a disjoint subtree: fork one task per extension
+            List<ExplorationTask> children = new ArrayList<>();
+            for (int e = 0; e < enumerator.size(); e++) {
+                if (!BitMasks.get(config, e) && enumerator.isEnabled(e, config)) {
+                    if (!enumerator.isCanonicalExtension(e, config, sequence, size, position)) {
+                        statistics.recordAvoidedVisit();
+                        continue;
+                    }
+                    long[] childConfig = config.clone();
+                    BitMasks.set(childConfig, e);
+                    int[] childSequence = sequence.clone();
+                    childSequence[size] = e;
+                    int[] childPosition = position.clone();
+                    childPosition[e] = size;
+                    children.add(new ExplorationTask(childConfig, childSequence, size + 1, childPosition, configurationsBySize));
+                }
+            }
+            invokeAll(children);
+        }
+    }
+}
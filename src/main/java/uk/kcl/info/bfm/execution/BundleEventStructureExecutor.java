@@ -18,71 +18,70 @@
 
 package uk.kcl.info.bfm.execution;
 
+import com.google.common.base.Preconditions;
 import uk.kcl.info.bfm.BundleEventStructure;
-import uk.kcl.info.bfm.CausalityRelation;
-import uk.kcl.info.bfm.Event;
 import uk.kcl.info.bfm.io.xml.XmlLoaderUtility;
 
 import java.io.File;
+import java.math.BigInteger;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class BundleEventStructureExecutor {
 
     private final BundleEventStructure bes;
+    private ExplorationOptions explorationOptions = new ExplorationOptions();
+    private ExplorationReport explorationReport = new ExplorationReport();
 
     public BundleEventStructureExecutor(BundleEventStructure bes) {
         this.bes = bes;
     }
 
+    public ExplorationOptions getExplorationOptions() {
+        return explorationOptions;
+    }
+
+    // Bounds the traces produced by getAllTraces() and forEachTrace(), exhaustive by default
+    public void setExplorationOptions(ExplorationOptions explorationOptions) {
+        Preconditions.checkNotNull(explorationOptions, "Exploration options may not be null!");
+        this.explorationOptions = explorationOptions;
+    }
+
+    // Report of the last call to getAllTraces() or forEachTrace()
+    public ExplorationReport getExplorationReport() {
+        return explorationReport;
+    }
+
     /**
      * Return all traces as sequences of event names.
      * This method should explore the BES configurations respecting causality and conflict.
      */
     public Set<List<String>> getAllTraces() {
         Set<List<String>> traces = new HashSet<>();
-        exploreConfigurations(new ArrayList<>(), new HashSet<>(), traces);
+        forEachTrace(traces::add);
         return traces;
     }
 
-    private void exploreConfigurations(List<String> currentTrace, Set<Event> executed, Set<List<String>> traces) {
-        // Add current trace to traces
-        traces.add(new ArrayList<>(currentTrace));
-
-        // Find all next possible events that can be executed next:
-        for (Event event : bes.getAllEvents()) {
-            if (executed.contains(event)) continue;
-
-            // Check causality: all causal predecessors executed
-            if (!areAllCausalPredecessorsExecuted(event, executed)) continue;
-
-            // Check conflicts: event not in conflict with executed events
-            if (isInConflictWithExecuted(event, executed)) continue;
-
-            // Execute this event next
-            List<String> newTrace = new ArrayList<>(currentTrace);
-            newTrace.add(event.getName());
-            Set<Event> newExecuted = new HashSet<>(executed);
-            newExecuted.add(event);
-            exploreConfigurations(newTrace, newExecuted, traces);
-        }
+    // Streams the traces without storing them, see TraceExplorer
+    public void forEachTrace(Consumer<List<String>> consumer) {
+        this.explorationReport = new TraceExplorer(bes).forEachTrace(consumer, explorationOptions);
     }
 
-    private boolean areAllCausalPredecessorsExecuted(Event event, Set<Event> executed) {
-        Iterator<CausalityRelation> causals = bes.getAllCausalitiesOfEvent(event);
-        while (causals.hasNext()) {
-            CausalityRelation cr = causals.next();
-            // For this bundle to be satisfied, at least one event in the bundle must be executed
-            boolean bundleSatisfied = cr.getBundle().stream().anyMatch(executed::contains);
-            if (!bundleSatisfied) return false; // If any bundle is unsatisfied, event cannot execute
+    /**
+     * Returns every trace equivalent to one of the given traces, e.g. to recover all the traces from the ones produced
+     * with partial-order reduction.
+     */
+    public Set<List<String>> expandTraces(Collection<List<String>> traces) {
+        TraceExplorer explorer = new TraceExplorer(bes);
+        Set<List<String>> expanded = new HashSet<>();
+        for (List<String> trace : traces) {
+            explorer.forEachLinearisation(trace, expanded::add);
         }
-        return true; // All bundles satisfied
+        return expanded;
     }
 
-    private boolean isInConflictWithExecuted(Event event, Set<Event> executed) {
-        for (Event executedEvent : executed) {
-            if (bes.areInConflict(event, executedEvent)) return true;
-        }
-        return false;
+    public BigInteger countTraces() {
+        return new TraceExplorer(bes).countTraces();
     }
 
 }
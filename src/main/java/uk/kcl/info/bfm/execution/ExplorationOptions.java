@@ -0,0 +1,118 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm.execution;
+
+import com.google.common.base.Preconditions;
+
+import java.time.Duration;
+
+/**
+ * Bounds of a trace exploration. By default the exploration is exhaustive: traces of any length, no limit on their
+ * number and no time budget. In sampling mode, only the given number of maximal traces (the traces that cannot be
+ * extended, or reach the maximum length) is produced, each one drawn uniformly at random among them.
+ */
+public class ExplorationOptions {
+
+    private int maxTraceLength = Integer.MAX_VALUE;
+    private long maxTraces = Long.MAX_VALUE;
+    private Duration timeBudget = null;
+    private int samples = 0;
+    private long seed = 0L;
+    private boolean partialOrderReduction = false;
+
+    public int getMaxTraceLength() {
+        return maxTraceLength;
+    }
+
+    // Traces longer than the given length are not explored
+    public void setMaxTraceLength(int maxTraceLength) {
+        Preconditions.checkArgument(maxTraceLength >= 0, "Maximum trace length may not be negative!");
+        this.maxTraceLength = maxTraceLength;
+    }
+
+    public long getMaxTraces() {
+        return maxTraces;
+    }
+
+    // The exploration stops once the given number of traces has been produced
+    public void setMaxTraces(long maxTraces) {
+        Preconditions.checkArgument(maxTraces >= 0, "Maximum number of traces may not be negative!");
+        this.maxTraces = maxTraces;
+    }
+
+    // Wall-clock budget of the exploration, or null if unbounded
+    public Duration getTimeBudget() {
+        return timeBudget;
+    }
+
+    public void setTimeBudget(Duration timeBudget) {
+        Preconditions.checkArgument(timeBudget == null || !timeBudget.isNegative(), "Time budget may not be negative!");
+        this.timeBudget = timeBudget;
+    }
+
+    public boolean isSampling() {
+        return samples > 0;
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Draws the given number of maximal traces instead of exploring all of them. The same seed gives the same traces.
+     * A number of samples of 0 switches back to the exhaustive exploration.
+     */
+    public void setSampling(int samples, long seed) {
+        Preconditions.checkArgument(samples >= 0, "Number of samples may not be negative!");
+        this.samples = samples;
+        this.seed = seed;
+    }
+
+    public boolean isPartialOrderReduction() {
+        return partialOrderReduction;
+    }
+
+    // Produces one trace per class of equivalent traces, not supported in sampling mode
+    public void setPartialOrderReduction(boolean partialOrderReduction) {
+        this.partialOrderReduction = partialOrderReduction;
+    }
+
+    // System.nanoTime() after which an exploration started at start is out of budget
+    long getDeadline(long start) {
+        if (timeBudget == null) {
+            return Long.MAX_VALUE;
+        }
+        long budget = timeBudget.toNanos();
+        return start + budget < start ? Long.MAX_VALUE : start + budget;
+    }
+
+    static boolean isPast(long deadline) {
+        return deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ExplorationOptions{maxTraceLength=" + maxTraceLength + ", maxTraces=" + maxTraces + ", timeBudget="
+                + timeBudget + ", samples=" + samples + ", seed=" + seed + ", partialOrderReduction=" + partialOrderReduction + '}';
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm.execution;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome of a trace exploration: the number of traces produced, and why the exploration was not exhaustive, if it
+ * was not. Safe to share between the workers of a parallel exploration.
+ */
+public class ExplorationReport {
+
+    private final LongAdder traces = new LongAdder();
+    private final LongAdder elapsedNanos = new LongAdder();
+    private volatile boolean lengthBounded = false;
+    private volatile boolean traceLimitReached = false;
+    private volatile boolean timedOut = false;
+    private volatile boolean sampled = false;
+    private volatile boolean reduced = false;
+
+    public void recordTrace() {
+        this.traces.increment();
+    }
+
+    public void recordLengthBound() {
+        this.lengthBounded = true;
+    }
+
+    public void recordTraceLimit() {
+        this.traceLimitReached = true;
+    }
+
+    public void recordTimeout() {
+        this.timedOut = true;
+    }
+
+    public void recordSampling() {
+        this.sampled = true;
+    }
+
+    public void recordReduction() {
+        this.reduced = true;
+    }
+
+    public void recordElapsed(long nanos) {
+        this.elapsedNanos.add(nanos);
+    }
+
+    // Adds the traces and truncations of another exploration to this report
+    public void merge(ExplorationReport other) {
+        this.traces.add(other.getTraces());
+        // Flags are only ever raised, so concurrent merges never clear one another's flags
+        if (other.lengthBounded) {
+            this.lengthBounded = true;
+        }
+        if (other.traceLimitReached) {
+            this.traceLimitReached = true;
+        }
+        if (other.timedOut) {
+            this.timedOut = true;
+        }
+        if (other.sampled) {
+            this.sampled = true;
+        }
+        if (other.reduced) {
+            this.reduced = true;
+        }
+    }
+
+    public long getTraces() {
+        return traces.sum();
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos.sum();
+    }
+
+    // Some trace of maximum length could still be extended
+    public boolean isLengthBounded() {
+        return lengthBounded;
+    }
+
+    // The exploration stopped with traces left to produce
+    public boolean isTraceLimitReached() {
+        return traceLimitReached;
+    }
+
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    // Traces stand for their class of equivalent traces, see ExplorationOptions#setPartialOrderReduction
+    public boolean isReduced() {
+        return reduced;
+    }
+
+    // True iff every trace, or every class of equivalent traces when reduced, was produced
+    public boolean isComplete() {
+        return !lengthBounded && !traceLimitReached && !timedOut && !sampled;
+    }
+
+    @Override
+    public String toString() {
+        return "ExplorationReport{traces=" + getTraces() + ", complete=" + isComplete() + ", lengthBounded="
+                + lengthBounded + ", traceLimitReached=" + traceLimitReached + ", timedOut=" + timedOut
+                + ", sampled=" + sampled + ", reduced=" + reduced + ", elapsedMs=" + getElapsedNanos() / 1_000_000 + '}';
+    }
+}
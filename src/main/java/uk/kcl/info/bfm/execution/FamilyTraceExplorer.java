@@ -0,0 +1,290 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm.execution;
+
+import be.vibes.fexpression.FExpression;
+import be.vibes.fexpression.FExpressionVisitorWithReturn;
+import be.vibes.fexpression.Feature;
+import be.vibes.fexpression.configuration.Configuration;
+import be.vibes.fexpression.exception.FExpressionException;
+import be.vibes.solver.FeatureModel;
+import be.vibes.solver.exception.ConstraintSolvingException;
+import com.google.common.base.Preconditions;
+import uk.kcl.info.bfm.CausalityRelation;
+import uk.kcl.info.bfm.Event;
+import uk.kcl.info.bfm.FeaturedEventStructure;
+import uk.kcl.info.bfm.SolverSession;
+import uk.kcl.info.bfm.configuration.EnumerationStatistics;
+import uk.kcl.info.utils.fexpression.FExpressionCache;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Explores the traces of all the products of a featured event structure in a single walk. Each partial trace carries
+ * the feature expression of the products able to execute it, and is pruned as soon as no product of the feature model
+ * satisfies this expression. A trace belongs to a product iff the product satisfies its expression.
+ */
+public class FamilyTraceExplorer {
+
+    private final FeaturedEventStructure<?> fes;
+    private final FeatureModel<?> fm;
+    private final FExpressionCache fexpressionCache;
+
+    private final List<Event> events;
+    // included.get(e) = products in which e is kept by the projection
+    private final Map<Event, FExpression> included = new HashMap<>();
+    // bundles.get(e) = all X such as X ↦ e
+    private final Map<Event, List<Set<Event>>> bundles = new HashMap<>();
+    // bundleIncluded.get(X) = products keeping an event of X
+    private final Map<Set<Event>, FExpression> bundleIncluded = new HashMap<>();
+
+    private EnumerationStatistics statistics = new EnumerationStatistics();
+    private ExplorationOptions explorationOptions = new ExplorationOptions();
+    private ExplorationReport explorationReport = new ExplorationReport();
+    private long deadline;
+
+    public FamilyTraceExplorer(FeaturedEventStructure<?> fes, FeatureModel<?> fm) {
+        this(fes, fm, fes.getFExpressionCache());
+    }
+
+    public FamilyTraceExplorer(FeaturedEventStructure<?> fes, FeatureModel<?> fm, FExpressionCache fexpressionCache) {
+        this.fes = Preconditions.checkNotNull(fes, "Featured event structure may not be null!");
+        this.fm = Preconditions.checkNotNull(fm, "Feature model may not be null!");
+        this.fexpressionCache = Preconditions.checkNotNull(fexpressionCache, "FExpression cache may not be null!");
+        this.events = new ArrayList<>(new LinkedHashSet<>(fes.getAllEvents()));
+
+        for (Event e : events) {
+            FExpression feature = new FExpression(fes.getFeature(e));
+            this.included.put(e, fexpressionCache.and(feature, fes.getFExpression(e)));
+        }
+        for (Event e : events) {
+            List<Set<Event>> eventBundles = new ArrayList<>();
+            for (Iterator<CausalityRelation> it = fes.getAllCausalitiesOfEvent(e); it.hasNext(); ) {
+                Set<Event> bundle = it.next().getBundle();
+                eventBundles.add(bundle);
+                this.bundleIncluded.computeIfAbsent(bundle, this::getBundleIncluded);
+            }
+            this.bundles.put(e, eventBundles);
+        }
+    }
+
+    // Statistics of the last exploration
+    public EnumerationStatistics getStatistics() {
+        return statistics;
+    }
+
+    public ExplorationOptions getExplorationOptions() {
+        return explorationOptions;
+    }
+
+    // Bounds the traces explored, exhaustive by default. Sampling and partial-order reduction are not supported.
+    public void setExplorationOptions(ExplorationOptions explorationOptions) {
+        Preconditions.checkNotNull(explorationOptions, "Exploration options may not be null!");
+        Preconditions.checkArgument(!explorationOptions.isSampling(), "Sampling is not supported by the family-based exploration!");
+        Preconditions.checkArgument(!explorationOptions.isPartialOrderReduction(),
+                "Partial-order reduction is not supported by the family-based exploration!");
+        this.explorationOptions = explorationOptions;
+    }
+
+    // Report of the last exploration
+    public ExplorationReport getExplorationReport() {
+        return explorationReport;
+    }
+
+    /**
+     * Returns every trace of the family with the feature expression of the products executing it.
+     */
+    public Map<List<String>, FExpression> getFeaturedTraces() {
+        Map<List<String>, FExpression> traces = new LinkedHashMap<>();
+        forEachFeaturedTrace(traces::put);
+        return traces;
+    }
+
+    /**
+     * Streams every trace of the family, with the feature expression of the products executing it, to the consumer.
+     */
+    public void forEachFeaturedTrace(BiConsumer<List<String>, FExpression> consumer) {
+        Preconditions.checkNotNull(consumer, "Consumer may not be null!");
+        this.statistics = new EnumerationStatistics();
+        this.explorationReport = new ExplorationReport();
+        long start = System.nanoTime();
+        this.deadline = explorationOptions.getDeadline(start);
+        try (SolverSession session = new SolverSession(fm, statistics)) {
+            explore(new ArrayList<>(), new HashSet<>(), FExpression.trueValue(), session, consumer);
+        }
+        explorationReport.recordElapsed(System.nanoTime() - start);
+    }
+
+    /**
+     * Returns the traces of each product of the feature model, in the format of
+     * {@link FeaturedEventStructureExecutor#getAllTraces()}.
+     */
+    public Map<Configuration, Set<List<String>>> getAllTraces() throws ConstraintSolvingException {
+        Map<List<String>, FExpression> featuredTraces = getFeaturedTraces();
+        Map<Configuration, Set<List<String>>> tracesMap = new HashMap<>();
+        Iterator<Configuration> it = fm.getSolutions();
+
+        while (it.hasNext()) {
+            Configuration product = it.next();
+            ProductEvaluator evaluator = new ProductEvaluator(product);
+            Set<List<String>> traces = new HashSet<>();
+            for (Map.Entry<List<String>, FExpression> entry : featuredTraces.entrySet()) {
+                if (evaluator.evaluate(entry.getValue())) {
+                    traces.add(entry.getKey());
+                }
+            }
+            tracesMap.put(product, traces);
+        }
+
+        return tracesMap;
+    }
+
+    /*
+     * The projection on a product keeps X ∩ E' ↦ e when X ∩ E' ≠ ∅, so a product can execute e after config iff it
+     * keeps e, and every bundle X ↦ e disjoint from config has no event kept by the product. The conjunction of the
+     * guards of the trace is pushed on the solver session, each step only adds its own guard on top of it.
+     * Returns false once the exploration has to stop.
+     */
+    private boolean explore(List<String> trace, Set<Event> config, FExpression guard, SolverSession session,
+                            BiConsumer<List<String>, FExpression> consumer) {
+
+        if (explorationReport.getTraces() >= explorationOptions.getMaxTraces()) {
+            explorationReport.recordTraceLimit();
+            return false;
+        }
+        if (ExplorationOptions.isPast(deadline)) {
+            explorationReport.recordTimeout();
+            return false;
+        }
+        consumer.accept(List.copyOf(trace), guard);
+        explorationReport.recordTrace();
+        statistics.recordVisit();
+        boolean lengthBounded = trace.size() == explorationOptions.getMaxTraceLength();
+
+        for (Event e : events) {
+            if (config.contains(e) || !isConflictFree(e, config)) {
+                continue;
+            }
+            FExpression step = getStepGuard(e, config);
+            if (!session.isSatisfiable(step)) {
+                // No product executes trace + e
+                statistics.recordAvoidedVisit();
+                continue;
+            }
+            if (lengthBounded) {
+                explorationReport.recordLengthBound();
+                break;
+            }
+            session.push(step);
+            config.add(e);
+            trace.add(e.getName());
+            boolean proceed = explore(trace, config, guard.and(step), session, consumer);
+            // Backtrack
+            trace.remove(trace.size() - 1);
+            config.remove(e);
+            session.pop();
+            if (!proceed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private FExpression getStepGuard(Event e, Set<Event> config) {
+        FExpression step = included.get(e);
+        for (Set<Event> bundle : bundles.get(e)) {
+            if (Collections.disjoint(bundle, config)) {
+                step = fexpressionCache.and(step, fexpressionCache.not(bundleIncluded.get(bundle)));
+            }
+        }
+        return step;
+    }
+
+    private FExpression getBundleIncluded(Set<Event> bundle) {
+        FExpression fexpr = FExpression.falseValue();
+        for (Event cause : bundle) {
+            FExpression causeIncluded = included.get(cause);
+            fexpr = fexpressionCache.or(fexpr, causeIncluded == null ? FExpression.falseValue() : causeIncluded);
+        }
+        return fexpr;
+    }
+
+    private boolean isConflictFree(Event e, Set<Event> config) {
+        for (Event other : fes.getAllConflictsOfEvent(e)) {
+            if (config.contains(other)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Evaluates feature expressions on a product
+    private static class ProductEvaluator implements FExpressionVisitorWithReturn<Boolean> {
+
+        private final Configuration product;
+
+        ProductEvaluator(Configuration product) {
+            this.product = product;
+        }
+
+        boolean evaluate(FExpression fexpr) {
+            try {
+                return fexpr.accept(this);
+            } catch (FExpressionException ex) {
+                throw new IllegalStateException("No exception should happen while using this visitor!", ex);
+            }
+        }
+
+        @Override
+        public Boolean constant(boolean val) {
+            return val;
+        }
+
+        @Override
+        public Boolean feature(Feature<?> feature) {
+            return product.isSelected(feature);
+        }
+
+        @Override
+        public Boolean not(FExpression expr) {
+            return !evaluate(expr);
+        }
+
+        @Override
+        public Boolean and(List<FExpression> operands) {
+            for (FExpression operand : operands) {
+                if (!evaluate(operand)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Boolean or(List<FExpression> operands) {
+            for (FExpression operand : operands) {
+                if (evaluate(operand)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -18,21 +18,38 @@
 
 package uk.kcl.info.bfm.execution;
 
+import be.vibes.fexpression.FExpression;
 import be.vibes.fexpression.Feature;
 import be.vibes.fexpression.configuration.Configuration;
 import be.vibes.solver.FeatureModel;
 import be.vibes.solver.exception.ConstraintSolvingException;
 import be.vibes.solver.io.xml.XmlLoaders;
 import be.vibes.ts.exception.UnresolvedFExpression;
+import com.google.common.base.Preconditions;
 import uk.kcl.info.bfm.*;
 import uk.kcl.info.bfm.io.xml.XmlLoaderUtility;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 
 public class FeaturedEventStructureExecutor {
 
+    // Number of products submitted ahead of the running ones, per thread
+    private static final int PENDING_PRODUCTS_PER_THREAD = 2;
+
     private final FeaturedEventStructure<?> fes;
     private final FeatureModel<?> fm;
+    private int parallelism = 1;
+    private boolean virtualThreads = false;
+    private ProductEnumeration productEnumeration = ProductEnumeration.PER_PRODUCT;
+    private ExplorationOptions explorationOptions = new ExplorationOptions();
+    private ExplorationReport explorationReport = new ExplorationReport();
 
     public FeaturedEventStructureExecutor(FeaturedEventStructure<?> fes, FeatureModel<?> fm) {
         this.fes = fes;
@@ -44,21 +61,172 @@ public class FeaturedEventStructureExecutor {
         this.fm = bfm;
     }
 
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Explores the products with the given number of threads. With a parallelism of 1 (the default), products are
+     * explored one at a time on the calling thread.
+     */
+    public void setParallelism(int parallelism) {
+        Preconditions.checkArgument(parallelism > 0, "Parallelism should be strictly positive!");
+        this.parallelism = parallelism;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    // Runs the products on virtual threads instead of a fixed pool of platform threads (parallel mode only)
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public ProductEnumeration getProductEnumeration() {
+        return productEnumeration;
+    }
+
+    /**
+     * With {@link ProductEnumeration#SYMBOLIC}, the traces of all the products are explored in a single walk of the
+     * structure (see {@link FamilyTraceExplorer}) instead of projecting and exploring each product separately. The
+     * parallelism only applies to {@link ProductEnumeration#PER_PRODUCT}.
+     */
+    public void setProductEnumeration(ProductEnumeration productEnumeration) {
+        Preconditions.checkNotNull(productEnumeration, "Product enumeration may not be null!");
+        this.productEnumeration = productEnumeration;
+    }
+
+    public ExplorationOptions getExplorationOptions() {
+        return explorationOptions;
+    }
+
+    /**
+     * Bounds the traces explored, exhaustive by default. The trace length, trace limit and sampling apply to each
+     * product (to the whole family with {@link ProductEnumeration#SYMBOLIC}, which does not support sampling nor
+     * partial-order reduction), the time budget to the whole exploration: once it is spent, the remaining products
+     * are left out.
+     */
+    public void setExplorationOptions(ExplorationOptions explorationOptions) {
+        Preconditions.checkNotNull(explorationOptions, "Exploration options may not be null!");
+        this.explorationOptions = explorationOptions;
+    }
+
+    // Report of the last exploration, summed over the products
+    public ExplorationReport getExplorationReport() {
+        return explorationReport;
+    }
+
+    // Every trace of the family, with the feature expression of the products executing it
+    public Map<List<String>, FExpression> getFeaturedTraces() {
+        FamilyTraceExplorer explorer = newFamilyTraceExplorer();
+        Map<List<String>, FExpression> traces = explorer.getFeaturedTraces();
+        this.explorationReport = explorer.getExplorationReport();
+        return traces;
+    }
 
     public Map<Configuration, Set<List<String>>> getAllTraces() throws ConstraintSolvingException, UnresolvedFExpression {
+        Map<Configuration, Set<List<String>>> tracesMap = parallelism > 1 ? new ConcurrentHashMap<>() : new HashMap<>();
+        forEachProduct(tracesMap::put);
+        return tracesMap;
+    }
 
-        BehavioralProduct proj = SimpleBehavioralProduct.getInstance();
-        Map<Configuration, Set<List<String>>> tracesMap = new HashMap<>();
+    /**
+     * Streams the traces of each product to the sink as soon as they are computed, instead of keeping all of them in
+     * memory. In parallel mode the sink is called concurrently from the worker threads, and must be thread safe.
+     */
+    public void forEachProduct(BiConsumer<Configuration, Set<List<String>>> sink) throws ConstraintSolvingException, UnresolvedFExpression {
+        Preconditions.checkNotNull(sink, "Sink may not be null!");
+        if (productEnumeration == ProductEnumeration.SYMBOLIC) {
+            FamilyTraceExplorer explorer = newFamilyTraceExplorer();
+            explorer.getAllTraces().forEach(sink);
+            this.explorationReport = explorer.getExplorationReport();
+            return;
+        }
+        Collection<Feature<?>> features = (Collection<Feature<?>>) fm.getFeatures();
         Iterator<Configuration> it = fm.getSolutions();
+        ExplorationReport report = new ExplorationReport();
+        this.explorationReport = report;
+        long start = System.nanoTime();
+        long deadline = explorationOptions.getDeadline(start);
+        // Resolved once on the calling thread, and shared with the workers
+        BehavioralProduct projection = SimpleBehavioralProduct.getInstance();
+
+        if (parallelism == 1) {
+            while (it.hasNext()) {
+                if (ExplorationOptions.isPast(deadline)) {
+                    report.recordTimeout();
+                    break;
+                }
+                Configuration product = it.next();
+                sink.accept(product, explore(projection, features, product, deadline, report));
+            }
+        } else {
+            forEachProductInParallel(it, projection, features, sink, deadline, report);
+        }
+        report.recordElapsed(System.nanoTime() - start);
+    }
+
+    private FamilyTraceExplorer newFamilyTraceExplorer() {
+        FamilyTraceExplorer explorer = new FamilyTraceExplorer(fes, fm);
+        explorer.setExplorationOptions(explorationOptions);
+        return explorer;
+    }
 
-        while(it.hasNext()){
-            Configuration product = it.next();
-            BundleEventStructure bes = proj.project(fes, (Collection<Feature<?>>) fm.getFeatures(), product);
-            BundleEventStructureExecutor exec = new BundleEventStructureExecutor(bes);
-            tracesMap.put(product, exec.getAllTraces());
+    private Set<List<String>> explore(BehavioralProduct projection, Collection<Feature<?>> features,
+                                      Configuration product, long deadline, ExplorationReport report) {
+        BundleEventStructure bes = projection.project(fes, features, product);
+        Set<List<String>> traces = new HashSet<>();
+        report.merge(new TraceExplorer(bes).forEachTrace(traces::add, explorationOptions, deadline));
+        return traces;
+    }
+
+    /*
+     * The solution iterator is only read on the calling thread, and at most PENDING_PRODUCTS_PER_THREAD * parallelism
+     * products are in flight: the iterator blocks on the semaphore until a worker is done with a product.
+     */
+    private void forEachProductInParallel(Iterator<Configuration> it, BehavioralProduct projection,
+                                          Collection<Feature<?>> features,
+                                          BiConsumer<Configuration, Set<List<String>>> sink, long deadline,
+                                          ExplorationReport report) {
+        Semaphore inFlight = new Semaphore(PENDING_PRODUCTS_PER_THREAD * parallelism);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        ExecutorService executor = virtualThreads ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(parallelism);
+        try {
+            while (failure.get() == null && !report.isTimedOut() && it.hasNext()) {
+                Configuration product = it.next();
+                inFlight.acquire();
+                executor.execute(() -> {
+                    try {
+                        if (ExplorationOptions.isPast(deadline)) {
+                            report.recordTimeout();
+                        } else if (failure.get() == null) {
+                            sink.accept(product, explore(projection, features, product, deadline, report));
+                        }
+                    } catch (Throwable e) {
+                        // Errors too: an escaping one would end the worker with its product never reported
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while exploring products", e);
+        } finally {
+            executor.shutdownNow();
         }
 
-        return tracesMap;
+        Throwable error = failure.get();
+        if (error instanceof Error) {
+            throw (Error) error;
+        } else if (error != null) {
+            throw new IllegalStateException("Error while exploring products: " + error.getMessage(), error);
+        }
     }
 
 }
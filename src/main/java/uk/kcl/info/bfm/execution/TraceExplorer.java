@@ -0,0 +1,446 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm.execution;
+
+import com.google.common.base.Preconditions;
+import uk.kcl.info.bfm.BundleEventStructure;
+import uk.kcl.info.bfm.CausalityRelation;
+import uk.kcl.info.bfm.Event;
+import uk.kcl.info.bfm.configuration.EventIndex;
+
+import java.math.BigInteger;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Explores the traces of a bundle event structure: every sequence of events executable from the empty configuration,
+ * the empty trace included. Enabledness is maintained incrementally while walking: each event counts its bundles
+ * containing no executed event and its executed conflicting events, and is enabled when both counts are zero.
+ * Traces are streamed rather than stored, and counted on the configuration graph: the traces starting from a
+ * configuration only depend on this configuration, so each one is counted once, whatever the number of traces
+ * reaching it.
+ * <p>
+ * Two events are independent if they are neither in conflict nor related by a bundle: either order of independent
+ * enabled events leads to the same configuration, and executing one keeps the other enabled. With partial-order
+ * reduction, sleep sets skip the reorderings of independent events, so that one trace of each class of equivalent
+ * (Mazurkiewicz) traces is produced. {@link #forEachLinearisation} expands such a trace back to its class.
+ */
+public class TraceExplorer {
+
+    private final BundleEventStructure bes;
+    private final EventIndex index;
+    // conflicts[e] = ids of the events in conflict with e
+    private final int[][] conflicts;
+    // bundlesContaining[e] = ids of the bundles containing e
+    private final int[][] bundlesContaining;
+    // bundleTargets[b] = id of the event caused by bundle b
+    private final int[] bundleTargets;
+    private final int[] bundleCounts;
+    // dependent[e] = events in conflict with e, or sharing a bundle relation with e
+    private final BitSet[] dependent;
+
+    public TraceExplorer(BundleEventStructure bes) {
+        Preconditions.checkNotNull(bes, "Bundle event structure may not be null!");
+        this.bes = bes;
+        this.index = new EventIndex(bes.getAllEvents());
+        int size = index.size();
+        this.conflicts = new int[size][];
+        this.bundleCounts = new int[size];
+
+        List<Integer> targets = new ArrayList<>();
+        List<List<Integer>> containing = new ArrayList<>();
+        for (int e = 0; e < size; e++) {
+            containing.add(new ArrayList<>());
+        }
+        for (int e = 0; e < size; e++) {
+            Event event = index.getEvent(e);
+            this.conflicts[e] = toIds(bes.getAllConflictsOfEvent(event));
+            for (Iterator<CausalityRelation> it = bes.getAllCausalitiesOfEvent(event); it.hasNext(); ) {
+                int bundle = targets.size();
+                targets.add(e);
+                this.bundleCounts[e]++;
+                for (int cause : toIds(it.next().getBundle())) {
+                    containing.get(cause).add(bundle);
+                }
+            }
+        }
+        this.bundleTargets = targets.stream().mapToInt(Integer::intValue).toArray();
+        this.bundlesContaining = new int[size][];
+        for (int e = 0; e < size; e++) {
+            this.bundlesContaining[e] = containing.get(e).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        this.dependent = new BitSet[size];
+        for (int e = 0; e < size; e++) {
+            this.dependent[e] = new BitSet(size);
+            this.dependent[e].set(e);
+            for (int other : conflicts[e]) {
+                this.dependent[e].set(other);
+            }
+        }
+        for (int e = 0; e < size; e++) {
+            for (int bundle : bundlesContaining[e]) {
+                this.dependent[e].set(bundleTargets[bundle]);
+                this.dependent[bundleTargets[bundle]].set(e);
+            }
+        }
+    }
+
+    public EventIndex getEventIndex() {
+        return index;
+    }
+
+    /**
+     * Streams every trace, as a list of event names, to the consumer. Traces are produced depth-first: a trace is
+     * always followed by its extensions. Only the current trace is kept in memory.
+     */
+    public void forEachTrace(Consumer<List<String>> consumer) {
+        Preconditions.checkNotNull(consumer, "Consumer may not be null!");
+        Walk walk = new Walk();
+        String[] trace = new String[index.size()];
+        forEachTrace(walk, trace, 0, consumer);
+    }
+
+    /**
+     * Streams the traces within the bounds of the options to the consumer, see {@link ExplorationOptions}. In
+     * sampling mode, the configurations are first counted by their number of maximal traces, so that each drawn trace
+     * is chosen uniformly among the maximal ones.
+     */
+    public ExplorationReport forEachTrace(Consumer<List<String>> consumer, ExplorationOptions options) {
+        Preconditions.checkNotNull(options, "Exploration options may not be null!");
+        return forEachTrace(consumer, options, options.getDeadline(System.nanoTime()));
+    }
+
+    ExplorationReport forEachTrace(Consumer<List<String>> consumer, ExplorationOptions options, long deadline) {
+        Preconditions.checkNotNull(consumer, "Consumer may not be null!");
+        Preconditions.checkNotNull(options, "Exploration options may not be null!");
+        Preconditions.checkArgument(!options.isSampling() || !options.isPartialOrderReduction(),
+                "Sampling and partial-order reduction may not be combined!");
+        long start = System.nanoTime();
+        Bounds bounds = new Bounds(consumer, options, deadline);
+        if (options.isSampling()) {
+            bounds.report.recordSampling();
+            sampleTraces(bounds);
+        } else if (options.isPartialOrderReduction()) {
+            bounds.report.recordReduction();
+            forEachRepresentativeTrace(new Walk(), new String[index.size()], 0, new BitSet(index.size()), bounds);
+        } else {
+            forEachTrace(new Walk(), new String[index.size()], 0, bounds);
+        }
+        bounds.report.recordElapsed(System.nanoTime() - start);
+        return bounds.report;
+    }
+
+    // Number of traces, the empty trace included
+    public BigInteger countTraces() {
+        Walk walk = new Walk();
+        return countTraces(walk, new HashMap<>());
+    }
+
+    private void forEachTrace(Walk walk, String[] trace, int length, Consumer<List<String>> consumer) {
+        consumer.accept(List.of(Arrays.copyOf(trace, length)));
+        for (int e = 0; e < index.size(); e++) {
+            if (walk.isEnabled(e)) {
+                walk.execute(e);
+                trace[length] = index.getEvent(e).getName();
+                forEachTrace(walk, trace, length + 1, consumer);
+                walk.undo(e);
+            }
+        }
+    }
+
+    // Returns false once the exploration has to stop
+    private boolean forEachTrace(Walk walk, String[] trace, int length, Bounds bounds) {
+        if (!bounds.emit(trace, length)) {
+            return false;
+        }
+        if (length == bounds.maxTraceLength) {
+            if (walk.hasEnabled()) {
+                bounds.report.recordLengthBound();
+            }
+            return true;
+        }
+        for (int e = 0; e < index.size(); e++) {
+            if (walk.isEnabled(e)) {
+                walk.execute(e);
+                trace[length] = index.getEvent(e).getName();
+                boolean proceed = forEachTrace(walk, trace, length + 1, bounds);
+                walk.undo(e);
+                if (!proceed) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /*
+     * sleep = events already explored from an equivalent trace: their extensions of this trace are equivalent to
+     * traces explored before. Executing e wakes up the sleeping events dependent on e.
+     */
+    private boolean forEachRepresentativeTrace(Walk walk, String[] trace, int length, BitSet sleep, Bounds bounds) {
+        if (!bounds.emit(trace, length)) {
+            return false;
+        }
+        if (length == bounds.maxTraceLength) {
+            if (walk.hasEnabled()) {
+                bounds.report.recordLengthBound();
+            }
+            return true;
+        }
+        BitSet explored = (BitSet) sleep.clone();
+        for (int e = 0; e < index.size(); e++) {
+            if (walk.isEnabled(e) && !explored.get(e)) {
+                BitSet childSleep = (BitSet) explored.clone();
+                childSleep.andNot(dependent[e]);
+                walk.execute(e);
+                trace[length] = index.getEvent(e).getName();
+                boolean proceed = forEachRepresentativeTrace(walk, trace, length + 1, childSleep, bounds);
+                walk.undo(e);
+                if (!proceed) {
+                    return false;
+                }
+                explored.set(e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Streams every trace equivalent to the given one, the trace included: the orderings of its events keeping the
+     * order of each pair of dependent events.
+     */
+    public void forEachLinearisation(List<String> trace, Consumer<List<String>> consumer) {
+        Preconditions.checkNotNull(trace, "Trace may not be null!");
+        Preconditions.checkNotNull(consumer, "Consumer may not be null!");
+        int[] ids = new int[trace.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = getId(trace.get(i));
+        }
+        forEachLinearisation(ids, new boolean[ids.length], new String[ids.length], 0, consumer);
+    }
+
+    // Extends linearisation with any event of the trace whose dependent predecessors are all placed
+    private void forEachLinearisation(int[] trace, boolean[] placed, String[] linearisation, int length,
+                                      Consumer<List<String>> consumer) {
+        if (length == trace.length) {
+            consumer.accept(List.of(linearisation.clone()));
+            return;
+        }
+        for (int i = 0; i < trace.length; i++) {
+            if (placed[i]) {
+                continue;
+            }
+            boolean ready = true;
+            for (int j = 0; j < i && ready; j++) {
+                ready = placed[j] || !dependent[trace[i]].get(trace[j]);
+            }
+            if (ready) {
+                placed[i] = true;
+                linearisation[length] = index.getEvent(trace[i]).getName();
+                forEachLinearisation(trace, placed, linearisation, length + 1, consumer);
+                placed[i] = false;
+            }
+        }
+    }
+
+    private int getId(String name) {
+        Event event = bes.getEvent(name);
+        int id = event == null ? -1 : index.getId(event);
+        Preconditions.checkArgument(id >= 0, name + " is not an event of this structure!");
+        return id;
+    }
+
+    private void sampleTraces(Bounds bounds) {
+        Map<BitSet, BigInteger> counts = new HashMap<>();
+        countMaximalTraces(new Walk(), 0, counts, bounds);
+        Random random = new Random(bounds.options.getSeed());
+        String[] trace = new String[index.size()];
+
+        for (int i = 0; i < bounds.options.getSamples() && !bounds.isTimedOut(); i++) {
+            Walk walk = new Walk();
+            int length = 0;
+            while (length < bounds.maxTraceLength && walk.hasEnabled()) {
+                // Picks the next event with a probability proportional to the maximal traces following it
+                BigInteger pick = uniform(counts.get(walk.executed), random);
+                for (int e = 0; e < index.size(); e++) {
+                    if (walk.isEnabled(e)) {
+                        walk.execute(e);
+                        BigInteger count = counts.get(walk.executed);
+                        if (pick.compareTo(count) < 0) {
+                            trace[length++] = index.getEvent(e).getName();
+                            break;
+                        }
+                        pick = pick.subtract(count);
+                        walk.undo(e);
+                    }
+                }
+            }
+            if (!bounds.emit(trace, length)) {
+                return;
+            }
+        }
+    }
+
+    // maximal(c) = 1 if c is maximal or of maximum length, Σ maximal(c ∪ {e}) for e enabled in c otherwise
+    private BigInteger countMaximalTraces(Walk walk, int length, Map<BitSet, BigInteger> counts, Bounds bounds) {
+        BigInteger count = counts.get(walk.executed);
+        if (count != null) {
+            return count;
+        }
+        if (!walk.hasEnabled()) {
+            count = BigInteger.ONE;
+        } else if (length == bounds.maxTraceLength) {
+            bounds.report.recordLengthBound();
+            count = BigInteger.ONE;
+        } else {
+            count = BigInteger.ZERO;
+            for (int e = 0; e < index.size() && !bounds.isTimedOut(); e++) {
+                if (walk.isEnabled(e)) {
+                    walk.execute(e);
+                    count = count.add(countMaximalTraces(walk, length + 1, counts, bounds));
+                    walk.undo(e);
+                }
+            }
+        }
+        counts.put((BitSet) walk.executed.clone(), count);
+        return count;
+    }
+
+    // Uniform random number in [0, bound)
+    private static BigInteger uniform(BigInteger bound, Random random) {
+        BigInteger pick;
+        do {
+            pick = new BigInteger(bound.bitLength(), random);
+        } while (pick.compareTo(bound) >= 0);
+        return pick;
+    }
+
+    // traces(c) = 1 + Σ traces(c ∪ {e}) for e enabled in c
+    private BigInteger countTraces(Walk walk, Map<BitSet, BigInteger> counts) {
+        BigInteger count = counts.get(walk.executed);
+        if (count != null) {
+            return count;
+        }
+        count = BigInteger.ONE;
+        for (int e = 0; e < index.size(); e++) {
+            if (walk.isEnabled(e)) {
+                walk.execute(e);
+                count = count.add(countTraces(walk, counts));
+                walk.undo(e);
+            }
+        }
+        counts.put((BitSet) walk.executed.clone(), count);
+        return count;
+    }
+
+    private int[] toIds(Collection<Event> events) {
+        return events.stream().mapToInt(index::getId).filter(id -> id >= 0).toArray();
+    }
+
+    // Limits of a bounded exploration, and its report
+    private static class Bounds {
+
+        private final Consumer<List<String>> consumer;
+        private final ExplorationOptions options;
+        private final int maxTraceLength;
+        private final long deadline;
+        private final ExplorationReport report = new ExplorationReport();
+        private long emitted = 0;
+
+        Bounds(Consumer<List<String>> consumer, ExplorationOptions options, long deadline) {
+            this.consumer = consumer;
+            this.options = options;
+            this.maxTraceLength = options.getMaxTraceLength();
+            this.deadline = deadline;
+        }
+
+        boolean isTimedOut() {
+            if (ExplorationOptions.isPast(deadline)) {
+                report.recordTimeout();
+                return true;
+            }
+            return false;
+        }
+
+        // Returns false if the trace may not be produced, because of the trace limit or the time budget
+        boolean emit(String[] trace, int length) {
+            if (emitted >= options.getMaxTraces()) {
+                report.recordTraceLimit();
+                return false;
+            }
+            if (isTimedOut()) {
+                return false;
+            }
+            consumer.accept(List.of(Arrays.copyOf(trace, length)));
+            report.recordTrace();
+            emitted++;
+            return true;
+        }
+    }
+
+    // Configuration reached by the walk, with the counters deciding enabledness
+    private class Walk {
+
+        private final BitSet executed = new BitSet(index.size());
+        // unsatisfiedBundles[e] = number of bundles X ↦ e such as X ∩ executed = ∅
+        private final int[] unsatisfiedBundles = bundleCounts.clone();
+        // blockingConflicts[e] = number of executed events in conflict with e
+        private final int[] blockingConflicts = new int[index.size()];
+        // executedInBundle[b] = number of executed events of bundle b
+        private final int[] executedInBundle = new int[bundleTargets.length];
+
+        boolean isEnabled(int e) {
+            return !executed.get(e) && unsatisfiedBundles[e] == 0 && blockingConflicts[e] == 0;
+        }
+
+        boolean hasEnabled() {
+            for (int e = 0; e < index.size(); e++) {
+                if (isEnabled(e)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void execute(int e) {
+            executed.set(e);
+            for (int other : conflicts[e]) {
+                blockingConflicts[other]++;
+            }
+            for (int bundle : bundlesContaining[e]) {
+                if (executedInBundle[bundle]++ == 0) {
+                    unsatisfiedBundles[bundleTargets[bundle]]--;
+                }
+            }
+        }
+
+        void undo(int e) {
+            executed.clear(e);
+            for (int other : conflicts[e]) {
+                blockingConflicts[other]--;
+            }
+            for (int bundle : bundlesContaining[e]) {
+                if (--executedInBundle[bundle] == 0) {
+                    unsatisfiedBundles[bundleTargets[bundle]]++;
+                }
+            }
+        }
+    }
+}
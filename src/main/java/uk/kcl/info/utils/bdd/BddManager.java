@@ -0,0 +1,280 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.utils.bdd;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A small reduced ordered binary decision diagram (ROBDD) package. Nodes are ints indexing a node table, {@link #FALSE}
+ * and {@link #TRUE} being the terminals; variables are ordered by creation. Nodes are hash-consed in a unique table, so
+ * two equivalent functions are always the same int and emptiness is a comparison with {@link #FALSE}. Operations are
+ * memoised in a direct-mapped cache. Not thread-safe: build the diagrams first, then share immutable results.
+ */
+public class BddManager {
+
+    public static final int FALSE = 0;
+    public static final int TRUE = 1;
+
+    private static final int TERMINAL_LEVEL = Integer.MAX_VALUE;
+    private static final int OP_AND = 0;
+    private static final int OP_OR = 1;
+    private static final int OP_NOT = 2;
+
+    private int varCount;
+
+    // Node table
+    private int[] level;
+    private int[] low;
+    private int[] high;
+    private int size;
+
+    // Unique table, open addressing on node ids (0 = empty slot, never a decision node)
+    private int[] unique;
+
+    // Operation cache
+    private final int cacheMask;
+    private final int[] cacheOp;
+    private final int[] cacheLeft;
+    private final int[] cacheRight;
+    private final int[] cacheResult;
+
+    public BddManager() {
+        this(1 << 10, 1 << 16);
+    }
+
+    public BddManager(int initialNodes, int cacheSize) {
+        int capacity = Math.max(4, initialNodes);
+        this.level = new int[capacity];
+        this.low = new int[capacity];
+        this.high = new int[capacity];
+        this.level[FALSE] = this.level[TRUE] = TERMINAL_LEVEL;
+        this.size = 2;
+        this.unique = new int[Integer.highestOneBit(capacity) << 1];
+
+        int cache = Integer.highestOneBit(Math.max(16, cacheSize));
+        this.cacheMask = cache - 1;
+        this.cacheOp = new int[cache];
+        this.cacheLeft = new int[cache];
+        this.cacheRight = new int[cache];
+        this.cacheResult = new int[cache];
+        Arrays.fill(cacheOp, -1);
+    }
+
+    // Creates a new variable, placed after all existing ones in the order, and returns its index
+    public int newVariable() {
+        return varCount++;
+    }
+
+    public int getVariableCount() {
+        return varCount;
+    }
+
+    public int variable(int index) {
+        checkVariable(index);
+        return makeNode(index, FALSE, TRUE);
+    }
+
+    public int notVariable(int index) {
+        checkVariable(index);
+        return makeNode(index, TRUE, FALSE);
+    }
+
+    public int and(int a, int b) {
+        if (a == FALSE || b == FALSE) return FALSE;
+        if (a == TRUE || a == b) return b;
+        if (b == TRUE) return a;
+        return apply(OP_AND, Math.min(a, b), Math.max(a, b));
+    }
+
+    public int or(int a, int b) {
+        if (a == TRUE || b == TRUE) return TRUE;
+        if (a == FALSE || a == b) return b;
+        if (b == FALSE) return a;
+        return apply(OP_OR, Math.min(a, b), Math.max(a, b));
+    }
+
+    public int not(int a) {
+        if (a == FALSE) return TRUE;
+        if (a == TRUE) return FALSE;
+        int slot = cacheSlot(OP_NOT, a, 0);
+        if (cacheOp[slot] == OP_NOT && cacheLeft[slot] == a) {
+            return cacheResult[slot];
+        }
+        int result = makeNode(level[a], not(low[a]), not(high[a]));
+        store(slot, OP_NOT, a, 0, result);
+        return result;
+    }
+
+    // a ∧ ¬b
+    public int diff(int a, int b) {
+        return and(a, not(b));
+    }
+
+    public boolean isSatisfiable(int a) {
+        return a != FALSE;
+    }
+
+    // a → b, i.e. a ∧ ¬b is empty
+    public boolean implies(int a, int b) {
+        return diff(a, b) == FALSE;
+    }
+
+    public boolean isTerminal(int a) {
+        return a == FALSE || a == TRUE;
+    }
+
+    // Variable tested by the decision node a
+    public int getVariable(int a) {
+        checkDecisionNode(a);
+        return level[a];
+    }
+
+    // Successor of the decision node a when its variable is false
+    public int getLow(int a) {
+        checkDecisionNode(a);
+        return low[a];
+    }
+
+    // Successor of the decision node a when its variable is true
+    public int getHigh(int a) {
+        checkDecisionNode(a);
+        return high[a];
+    }
+
+    // Number of assignments of all the variables satisfying a
+    public BigInteger satCount(int a) {
+        return satCount(a, new HashMap<>()).shiftLeft(levelOf(a));
+    }
+
+    private BigInteger satCount(int a, Map<Integer, BigInteger> memo) {
+        if (a == FALSE) return BigInteger.ZERO;
+        if (a == TRUE) return BigInteger.ONE;
+        BigInteger cached = memo.get(a);
+        if (cached != null) {
+            return cached;
+        }
+        BigInteger lowCount = satCount(low[a], memo).shiftLeft(levelOf(low[a]) - level[a] - 1);
+        BigInteger highCount = satCount(high[a], memo).shiftLeft(levelOf(high[a]) - level[a] - 1);
+        BigInteger count = lowCount.add(highCount);
+        memo.put(a, count);
+        return count;
+    }
+
+    // Number of decision nodes created so far
+    public int getNodeCount() {
+        return size - 2;
+    }
+
+    private int levelOf(int a) {
+        return level[a] == TERMINAL_LEVEL ? varCount : level[a];
+    }
+
+    private int apply(int op, int a, int b) {
+        int slot = cacheSlot(op, a, b);
+        if (cacheOp[slot] == op && cacheLeft[slot] == a && cacheRight[slot] == b) {
+            return cacheResult[slot];
+        }
+        int top = Math.min(level[a], level[b]);
+        int aLow = level[a] == top ? low[a] : a;
+        int aHigh = level[a] == top ? high[a] : a;
+        int bLow = level[b] == top ? low[b] : b;
+        int bHigh = level[b] == top ? high[b] : b;
+        int result = op == OP_AND
+                ? makeNode(top, and(aLow, bLow), and(aHigh, bHigh))
+                : makeNode(top, or(aLow, bLow), or(aHigh, bHigh));
+        store(slot, op, a, b, result);
+        return result;
+    }
+
+    private int makeNode(int var, int lowNode, int highNode) {
+        if (lowNode == highNode) {
+            return lowNode;
+        }
+        int mask = unique.length - 1;
+        int slot = hash(var, lowNode, highNode) & mask;
+        while (unique[slot] != 0) {
+            int node = unique[slot];
+            if (level[node] == var && low[node] == lowNode && high[node] == highNode) {
+                return node;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == level.length) {
+            int capacity = level.length << 1;
+            level = Arrays.copyOf(level, capacity);
+            low = Arrays.copyOf(low, capacity);
+            high = Arrays.copyOf(high, capacity);
+        }
+        int node = size++;
+        level[node] = var;
+        low[node] = lowNode;
+        high[node] = highNode;
+        unique[slot] = node;
+
+        if (size * 2 > unique.length) {
+            rehash();
+        }
+        return node;
+    }
+
+    private void rehash() {
+        unique = new int[unique.length << 1];
+        int mask = unique.length - 1;
+        for (int node = 2; node < size; node++) {
+            int slot = hash(level[node], low[node], high[node]) & mask;
+            while (unique[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            unique[slot] = node;
+        }
+    }
+
+    private int cacheSlot(int op, int a, int b) {
+        return hash(op, a, b) & cacheMask;
+    }
+
+    private void store(int slot, int op, int a, int b, int result) {
+        cacheOp[slot] = op;
+        cacheLeft[slot] = a;
+        cacheRight[slot] = b;
+        cacheResult[slot] = result;
+    }
+
+    private static int hash(int a, int b, int c) {
+        int h = a * 0x9E3779B1 + b;
+        h = h * 0x85EBCA6B + c;
+        return h ^ (h >>> 15);
+    }
+
+    private void checkDecisionNode(int a) {
+        if (a < 2 || a >= size) {
+            throw new IllegalArgumentException("Not a BDD decision node: " + a + "!");
+        }
+    }
+
+    private void checkVariable(int index) {
+        if (index < 0 || index >= varCount) {
+            throw new IllegalArgumentException("Unknown BDD variable " + index + "!");
+        }
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.utils.bdd;
+
+import be.vibes.fexpression.FExpression;
+import be.vibes.fexpression.FExpressionVisitorWithReturn;
+import be.vibes.fexpression.Feature;
+import be.vibes.fexpression.exception.FExpressionException;
+import be.vibes.solver.FeatureModel;
+import be.vibes.solver.Group;
+import com.google.common.base.Preconditions;
+
+import java.util.*;
+
+/**
+ * Encodes feature expressions as BDDs of a {@link BddManager}, with one variable per feature name. Variables are
+ * created on first use, so their order follows the order in which features are met, unless features are declared
+ * beforehand with {@link #declareFeature(Feature)}. BDDs can be decoded back to feature expressions, and a feature
+ * model can be compiled into the BDD of its products with {@link #encodeFeatureModel(FeatureModel)}.
+ */
+public class FExpressionBddEncoder {
+
+    private final BddManager manager;
+    private final Map<String, Integer> variables = new HashMap<>();
+    // features.get(v) = a feature named after variable v
+    private final List<Feature<?>> features = new ArrayList<>();
+    private final Visitor visitor = new Visitor();
+
+    public FExpressionBddEncoder(BddManager manager) {
+        this.manager = Preconditions.checkNotNull(manager, "BDD manager may not be null!");
+    }
+
+    public BddManager getManager() {
+        return manager;
+    }
+
+    public int encode(FExpression fexpr) {
+        Preconditions.checkNotNull(fexpr, "FExpression may not be null!");
+        try {
+            return fexpr.accept(visitor);
+        } catch (FExpressionException ex) {
+            throw new IllegalStateException("No exception should happen while using this visitor!", ex);
+        }
+    }
+
+    // Variable of the feature, or -1 if it was never met
+    public int getVariable(String featureName) {
+        Integer variable = variables.get(featureName);
+        return variable == null ? -1 : variable;
+    }
+
+    // Variable of the feature, created after the existing ones if needed
+    public int declareFeature(Feature<?> feature) {
+        Preconditions.checkNotNull(feature, "Feature may not be null!");
+        Integer variable = variables.get(feature.getFeatureName());
+        if (variable == null) {
+            variable = manager.newVariable();
+            variables.put(feature.getFeatureName(), variable);
+            features.add(feature);
+        }
+        return variable;
+    }
+
+    /**
+     * Compiles the feature model into a single BDD, satisfied exactly by its products: the root is selected, a child
+     * is only selected with its parent, each group bounds the number of selected children of a selected parent, and
+     * the cross-tree constraints hold. The features are declared first, depth-first from the root, so that the
+     * features of a subtree are adjacent in the order.
+     */
+    public int encodeFeatureModel(FeatureModel<?> fm) {
+        Preconditions.checkNotNull(fm, "Feature model may not be null!");
+        List<Feature<?>> tree = new ArrayList<>();
+        Deque<Feature<?>> stack = new ArrayDeque<>();
+        if (fm.getRootFeature() != null) {
+            stack.push(fm.getRootFeature());
+        }
+        while (!stack.isEmpty()) {
+            Feature<?> feature = stack.pop();
+            declareFeature(feature);
+            tree.add(feature);
+            List<Feature<?>> children = new ArrayList<>();
+            for (Group<?> group : feature.getChildren()) {
+                children.addAll(group.getFeatures());
+            }
+            for (int i = children.size() - 1; i >= 0; i--) {
+                stack.push(children.get(i));
+            }
+        }
+        for (Feature<?> feature : fm.getFeatures()) {
+            declareFeature(feature);
+        }
+
+        int bdd = tree.isEmpty() ? BddManager.TRUE : manager.variable(getVariable(tree.get(0).getFeatureName()));
+        for (Feature<?> parent : tree) {
+            int parentVariable = getVariable(parent.getFeatureName());
+            for (Group<?> group : parent.getChildren()) {
+                List<Integer> children = new ArrayList<>();
+                for (Feature<?> child : group.getFeatures()) {
+                    int childVariable = getVariable(child.getFeatureName());
+                    children.add(childVariable);
+                    // child → parent
+                    bdd = manager.and(bdd, manager.or(manager.notVariable(childVariable), manager.variable(parentVariable)));
+                }
+                // parent → lower ≤ |selected children| ≤ upper
+                int cardinality = encodeCardinality(group, children);
+                bdd = manager.and(bdd, manager.or(manager.notVariable(parentVariable), cardinality));
+            }
+            for (FExpression constraint : parent.getConstraints()) {
+                bdd = manager.and(bdd, encode(constraint));
+            }
+        }
+        for (FExpression constraint : fm.getConstraints()) {
+            bdd = manager.and(bdd, encode(constraint));
+        }
+        return bdd;
+    }
+
+    private int encodeCardinality(Group<?> group, List<Integer> children) {
+        int size = children.size();
+        int lower;
+        int upper;
+        switch (group.GROUPTYPE) {
+            case MANDATORY -> {
+                lower = size;
+                upper = size;
+            }
+            case OPTIONAL -> {
+                lower = 0;
+                upper = size;
+            }
+            case ALTERNATIVE -> {
+                lower = 1;
+                upper = 1;
+            }
+            case OR -> {
+                lower = 1;
+                upper = size;
+            }
+            default -> {
+                lower = parseBound(group.getLowerBound(), 0);
+                upper = parseBound(group.getUpperBound(), size);
+            }
+        }
+        return encodeCardinality(children, 0, 0, lower, upper, new HashMap<>());
+    }
+
+    // Bound of a group cardinality, or the default one if it is unbounded ("*") or missing
+    private static int parseBound(Object bound, int defaultValue) {
+        String value = bound == null ? "" : bound.toString().trim();
+        if (value.isEmpty() || value.equals("*")) {
+            return defaultValue;
+        }
+        int parsed = Integer.parseInt(value);
+        return parsed < 0 ? defaultValue : parsed;
+    }
+
+    // lower ≤ count + |selected among variables[i..]| ≤ upper, memoised on (i, count)
+    private int encodeCardinality(List<Integer> variables, int i, int count, int lower, int upper,
+                                  Map<Integer, Integer> memo) {
+        if (count > upper) {
+            return BddManager.FALSE;
+        }
+        if (i == variables.size()) {
+            return count >= lower ? BddManager.TRUE : BddManager.FALSE;
+        }
+        int key = i * (variables.size() + 1) + count;
+        Integer cached = memo.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        int variable = variables.get(i);
+        int bdd = manager.or(
+                manager.and(manager.variable(variable), encodeCardinality(variables, i + 1, count + 1, lower, upper, memo)),
+                manager.and(manager.notVariable(variable), encodeCardinality(variables, i + 1, count, lower, upper, memo)));
+        memo.put(key, bdd);
+        return bdd;
+    }
+
+    public Feature<?> getFeature(int variable) {
+        return features.get(variable);
+    }
+
+    // Feature expression of the BDD, as nested if-then-else over its variables
+    public FExpression decode(int bdd) {
+        return decode(bdd, new HashMap<>()).copy();
+    }
+
+    private FExpression decode(int bdd, Map<Integer, FExpression> memo) {
+        if (bdd == BddManager.FALSE) {
+            return FExpression.falseValue();
+        }
+        if (bdd == BddManager.TRUE) {
+            return FExpression.trueValue();
+        }
+        FExpression cached = memo.get(bdd);
+        if (cached != null) {
+            return cached;
+        }
+        FExpression feature = new FExpression(getFeature(manager.getVariable(bdd)));
+        int low = manager.getLow(bdd);
+        int high = manager.getHigh(bdd);
+
+        FExpression fexpr;
+        if (low == BddManager.FALSE) {
+            fexpr = high == BddManager.TRUE ? feature : feature.and(decode(high, memo));
+        } else if (high == BddManager.FALSE) {
+            fexpr = low == BddManager.TRUE ? feature.not() : feature.not().and(decode(low, memo));
+        } else if (low == BddManager.TRUE) {
+            fexpr = feature.not().or(decode(high, memo));
+        } else if (high == BddManager.TRUE) {
+            fexpr = feature.or(decode(low, memo));
+        } else {
+            fexpr = feature.and(decode(high, memo)).or(feature.not().and(decode(low, memo)));
+        }
+        memo.put(bdd, fexpr);
+        return fexpr;
+    }
+
+    private class Visitor implements FExpressionVisitorWithReturn<Integer> {
+
+        @Override
+        public Integer constant(boolean val) {
+            return val ? BddManager.TRUE : BddManager.FALSE;
+        }
+
+        @Override
+        public Integer feature(Feature<?> feature) {
+            return manager.variable(declareFeature(feature));
+        }
+
+        @Override
+        public Integer not(FExpression expr) {
+            return manager.not(encode(expr));
+        }
+
+        @Override
+        public Integer and(List<FExpression> operands) {
+            int conj = BddManager.TRUE;
+            for (FExpression operand : operands) {
+                conj = manager.and(conj, encode(operand));
+                if (conj == BddManager.FALSE) {
+                    break;
+                }
+            }
+            return conj;
+        }
+
+        @Override
+        public Integer or(List<FExpression> operands) {
+            int disj = BddManager.FALSE;
+            for (FExpression operand : operands) {
+                disj = manager.or(disj, encode(operand));
+                if (disj == BddManager.TRUE) {
+                    break;
+                }
+            }
+            return disj;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.utils.fexpression;
+
+import be.vibes.fexpression.FExpression;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.MapMaker;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Memoises the simplification of feature expressions. Operands are identified by instance: each expression gets an id
+ * the first time it is seen (held weakly, so ids die with their expressions), and the simplified results of and/or/not,
+ * CNF conversions and falsity checks are kept in a bounded LRU map keyed on these ids. Building a key is constant time,
+ * whatever the size of the operands. Results are returned as is, so chains of operations on cached results hit the
+ * cache; they are shared between callers and must not be modified with the in-place operations (andWith, orWith,
+ * notWith), nor should the operands once given to the cache. Thread-safe.
+ */
+public class FExpressionCache {
+
+    public static final int DEFAULT_CAPACITY = 100_000;
+
+    private static final char AND = '&';
+    private static final char OR = '|';
+    private static final char NOT = '!';
+    private static final char SIMPLIFY = '~';
+    private static final char CNF = 'c';
+    private static final char FALSE = '0';
+
+    private final Map<Key, Object> entries;
+    // Weak keys compare by identity
+    private final ConcurrentMap<FExpression, Long> ids = new MapMaker().weakKeys().makeMap();
+    private final AtomicLong nextId = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public FExpressionCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public FExpressionCache(int capacity) {
+        Preconditions.checkArgument(capacity > 0, "Capacity should be positive!");
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    // Simplified a ∧ b
+    public FExpression and(FExpression a, FExpression b) {
+        return (FExpression) lookup(binaryKey(AND, a, b), () -> a.and(b).applySimplification());
+    }
+
+    // Simplified a ∨ b
+    public FExpression or(FExpression a, FExpression b) {
+        return (FExpression) lookup(binaryKey(OR, a, b), () -> a.or(b).applySimplification());
+    }
+
+    // Simplified ¬a
+    public FExpression not(FExpression a) {
+        return (FExpression) lookup(unaryKey(NOT, a), () -> a.not().applySimplification());
+    }
+
+    public FExpression simplify(FExpression a) {
+        return (FExpression) lookup(unaryKey(SIMPLIFY, a), () -> a.copy().applySimplification());
+    }
+
+    // Simplified CNF of a
+    public FExpression toCnf(FExpression a) {
+        return (FExpression) lookup(unaryKey(CNF, a), () -> a.copy().applySimplification().toCnf());
+    }
+
+    // True iff a simplifies to false
+    public boolean isFalse(FExpression a) {
+        return (Boolean) lookup(unaryKey(FALSE, a), () -> a.copy().applySimplification().isFalse());
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "FExpressionCache{hits=" + getHits() + ", misses=" + getMisses() + ", size=" + size() + '}';
+    }
+
+    private record Key(char operator, long left, long right) {
+    }
+
+    private long id(FExpression fexpr) {
+        Preconditions.checkNotNull(fexpr, "FExpression may not be null!");
+        return ids.computeIfAbsent(fexpr, k -> nextId.incrementAndGet());
+    }
+
+    private Key unaryKey(char operator, FExpression a) {
+        return new Key(operator, id(a), 0);
+    }
+
+    // Conjunction and disjunction are commutative: both operand orders share the same entry
+    private Key binaryKey(char operator, FExpression a, FExpression b) {
+        long left = id(a);
+        long right = id(b);
+        return left <= right ? new Key(operator, left, right) : new Key(operator, right, left);
+    }
+
+    private Object lookup(Key key, Supplier<Object> computation) {
+        synchronized (this) {
+            Object cached = entries.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        // Simplifications run outside the lock; concurrent misses on the same key keep the first result
+        Object value = computation.get();
+        synchronized (this) {
+            Object cached = entries.putIfAbsent(key, value);
+            return cached != null ? cached : value;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.utils.translators;
+
+import be.vibes.ts.Action;
+
+/**
+ * Reachability between the actions of a (featured) transition system, as used to derive conflicts and causalities.
+ */
+public interface ActionReachability {
+
+    // An action labelled 'to' can be executed (not necessarily immediately) after an action labelled 'from'
+    boolean isReachable(Action from, Action to);
+
+    // An action labelled 'target' can be executed immediately after an action labelled 'source'
+    boolean isPredecessor(Action source, Action target);
+}
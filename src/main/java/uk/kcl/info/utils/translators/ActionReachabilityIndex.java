@@ -0,0 +1,197 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.utils.translators;
+
+import be.vibes.ts.Action;
+import be.vibes.ts.State;
+import be.vibes.ts.Transition;
+import be.vibes.ts.TransitionSystem;
+import com.google.common.base.Preconditions;
+
+import java.util.*;
+
+/**
+ * Precomputed answers to {@link TranslationUtils#isReachable(TransitionSystem, Action, Action)} and
+ * {@link TranslationUtils#isPredecessor(TransitionSystem, Action, Action)} for every pair of actions of a transition
+ * system. States are condensed into strongly connected components, the actions reachable from each component are
+ * accumulated as bit sets in reverse topological order, and the result is projected to one bit set per action, so
+ * that each query is a single bit lookup.
+ */
+public class ActionReachabilityIndex implements ActionReachability {
+
+    private final Map<Action, Integer> actionIds = new HashMap<>();
+    // reachable[a] = actions b labelling a transition reachable after an a-transition
+    private final long[][] reachable;
+    // successors[a] = actions b labelling a transition leaving the target of an a-transition
+    private final long[][] successors;
+
+    public ActionReachabilityIndex(TransitionSystem ts) {
+        Preconditions.checkNotNull(ts, "Transition system may not be null!");
+        for (Iterator<Action> it = ts.actions(); it.hasNext(); ) {
+            actionIds.putIfAbsent(it.next(), actionIds.size());
+        }
+
+        // States are numbered from the transitions, the graph being stored as edge lists
+        Map<State, Integer> stateIds = new HashMap<>();
+        stateIds.put(ts.getInitialState(), 0);
+        List<int[]> edges = new ArrayList<>();
+        for (Iterator<Transition> it = ts.transitions(); it.hasNext(); ) {
+            Transition t = it.next();
+            int source = stateIds.computeIfAbsent(t.getSource(), k -> stateIds.size());
+            int target = stateIds.computeIfAbsent(t.getTarget(), k -> stateIds.size());
+            int action = actionIds.computeIfAbsent(t.getAction(), k -> actionIds.size());
+            edges.add(new int[]{source, action, target});
+        }
+        int states = stateIds.size();
+        int[][] outgoing = new int[states][];
+        int[] outDegree = new int[states];
+        for (int[] edge : edges) {
+            outDegree[edge[0]]++;
+        }
+        for (int s = 0; s < states; s++) {
+            outgoing[s] = new int[outDegree[s]];
+            outDegree[s] = 0;
+        }
+        for (int i = 0; i < edges.size(); i++) {
+            int source = edges.get(i)[0];
+            outgoing[source][outDegree[source]++] = i;
+        }
+
+        int[] component = new int[states];
+        int components = computeComponents(outgoing, edges, component);
+
+        // Tarjan numbers the components in reverse topological order: successors are always complete first
+        int actionWords = (actionIds.size() + 63) >>> 6;
+        long[][] componentActions = new long[components][actionWords];
+        List<List<Integer>> members = new ArrayList<>(components);
+        for (int c = 0; c < components; c++) {
+            members.add(new ArrayList<>());
+        }
+        for (int s = 0; s < states; s++) {
+            members.get(component[s]).add(s);
+        }
+        for (int c = 0; c < components; c++) {
+            long[] actions = componentActions[c];
+            for (int s : members.get(c)) {
+                for (int e : outgoing[s]) {
+                    int[] edge = edges.get(e);
+                    set(actions, edge[1]);
+                    int next = component[edge[2]];
+                    if (next != c) {
+                        or(actions, componentActions[next]);
+                    }
+                }
+            }
+        }
+
+        this.reachable = new long[actionIds.size()][actionWords];
+        this.successors = new long[actionIds.size()][actionWords];
+        for (int[] edge : edges) {
+            or(reachable[edge[1]], componentActions[component[edge[2]]]);
+            for (int e : outgoing[edge[2]]) {
+                set(successors[edge[1]], edges.get(e)[1]);
+            }
+        }
+    }
+
+    // Iterative Tarjan, returns the number of strongly connected components
+    private static int computeComponents(int[][] outgoing, List<int[]> edges, int[] component) {
+        int states = outgoing.length;
+        int[] index = new int[states];
+        int[] lowLink = new int[states];
+        boolean[] onStack = new boolean[states];
+        Arrays.fill(index, -1);
+        int[] stack = new int[states];
+        int stackSize = 0;
+        int[] callStack = new int[states];
+        int[] nextEdge = new int[states];
+        int counter = 0;
+        int components = 0;
+
+        for (int root = 0; root < states; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            callStack[depth] = root;
+            index[root] = lowLink[root] = counter++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth >= 0) {
+                int s = callStack[depth];
+                if (nextEdge[s] < outgoing[s].length) {
+                    int t = edges.get(outgoing[s][nextEdge[s]++])[2];
+                    if (index[t] < 0) {
+                        index[t] = lowLink[t] = counter++;
+                        stack[stackSize++] = t;
+                        onStack[t] = true;
+                        callStack[++depth] = t;
+                    } else if (onStack[t]) {
+                        lowLink[s] = Math.min(lowLink[s], index[t]);
+                    }
+                } else {
+                    if (lowLink[s] == index[s]) {
+                        int member;
+                        do {
+                            member = stack[--stackSize];
+                            onStack[member] = false;
+                            component[member] = components;
+                        } while (member != s);
+                        components++;
+                    }
+                    depth--;
+                    if (depth >= 0) {
+                        int parent = callStack[depth];
+                        lowLink[parent] = Math.min(lowLink[parent], lowLink[s]);
+                    }
+                }
+            }
+        }
+        return components;
+    }
+
+    // Same answer as TranslationUtils.isReachable(ts, from, to)
+    @Override
+    public boolean isReachable(Action from, Action to) {
+        return get(reachable, from, to);
+    }
+
+    // Same answer as TranslationUtils.isPredecessor(ts, source, target)
+    @Override
+    public boolean isPredecessor(Action source, Action target) {
+        return get(successors, source, target);
+    }
+
+    private boolean get(long[][] matrix, Action row, Action column) {
+        Integer r = actionIds.get(row);
+        Integer c = actionIds.get(column);
+        return r != null && c != null && (matrix[r][c >>> 6] & (1L << c)) != 0;
+    }
+
+    private static void set(long[] mask, int bit) {
+        mask[bit >>> 6] |= 1L << bit;
+    }
+
+    private static void or(long[] target, long[] source) {
+        for (int w = 0; w < target.length; w++) {
+            target[w] |= source[w];
+        }
+    }
+}
@@ -20,10 +20,15 @@ package uk.kcl.info.utils.translators;
 
 import be.vibes.ts.*;
 import com.google.common.collect.BiMap;
+import com.google.common.collect.HashBiMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.kcl.info.bfm.BundleEventStructure;
 import uk.kcl.info.bfm.Event;
+import uk.kcl.info.bfm.FeaturedEventStructure;
+import uk.kcl.info.bfm.configuration.BitSetConfigurationEnumerator;
+import uk.kcl.info.bfm.configuration.ConfigurationGraphListener;
+import uk.kcl.info.bfm.configuration.EventIndex;
 
 import java.util.*;
 
@@ -34,20 +39,20 @@ public class BesToTsConverter implements ModelConverter<BundleEventStructure, Tr
     private static final Logger LOG = LoggerFactory.getLogger(BesToTsConverter.class);
 
     private final BundleEventStructure bes;
-    private final TreeMap<Integer, Set<Set<Event>>> configurations;
-    private final BiMap<Set<Event>, String> configToStateMap;
 
     public BesToTsConverter(BundleEventStructure bes) {
-        this.bes = Objects.requireNonNull(bes);;
-        this.configurations = bes.getAllConfigurations();
-        this.configToStateMap = indexConfigurationsAsStates(configurations.values());
+        this.bes = Objects.requireNonNull(bes);
     }
 
     public TransitionSystem convert() {
         TransitionSystemFactory factory = new TransitionSystemFactory(INITIAL_STATE);
         addActions(factory);
-        addStates(factory);
-        addTransitions(factory);
+        if (bes instanceof FeaturedEventStructure) {
+            // Configurations depend on the products: go through the structure's own enumeration
+            addStatesAndTransitions(factory);
+        } else {
+            exploreStatesAndTransitions(factory);
+        }
         return factory.build();
     }
 
@@ -60,40 +65,56 @@ public class BesToTsConverter implements ModelConverter<BundleEventStructure, Tr
         }
     }
 
-    private void addStates(TransitionSystemFactory factory) {
-        int i = 0;
-        for (String state : configToStateMap.values()) {
-            factory.addState(state);
-            i++;
-            LOG.trace("Configurations to states: {}/{}", i, configToStateMap.size());
-        }
-    }
-
-    private void addTransitions(TransitionSystemFactory factory) {
-        int i = 0;
-        for (int size : configurations.keySet()) {
-            Set<Set<Event>> currentLevel = configurations.get(size);
-            Set<Set<Event>> nextLevel = configurations.get(size + 1);
-            if (nextLevel == null) continue;
+    /*
+     * Single pass: states and transitions are emitted while the configurations are explored, each configuration
+     * being named after the id allocated when it is discovered.
+     */
+    private void exploreStatesAndTransitions(TransitionSystemFactory factory) {
+        BitSetConfigurationEnumerator enumerator = new BitSetConfigurationEnumerator(bes);
+        EventIndex index = enumerator.getEventIndex();
+        int count = enumerator.exploreConfigurationGraph(new ConfigurationGraphListener() {
+            @Override
+            public void onConfiguration(int id, BitSet configuration) {
+                factory.addState(getStateName(id));
+            }
 
-            for (Set<Event> sourceConfig : currentLevel) {
-                for (Set<Event> targetConfig : nextLevel) {
-                    if (isSingleStepSuccessor(sourceConfig, targetConfig)) {
-                        Event addedEvent = getSingleDifference(sourceConfig, targetConfig);
-                        if (addedEvent != null) {
-                            String sourceState = configToStateMap.get(sourceConfig);
-                            String targetState = configToStateMap.get(targetConfig);
-                            factory.addTransition(sourceState, addedEvent.getName(), targetState);
-                        }
-                    }
-                }
+            @Override
+            public void onExtension(int source, int event, int target) {
+                factory.addTransition(getStateName(source), index.getEvent(event).getName(), getStateName(target));
             }
-            i++;
-            LOG.trace("Configurations to transitions: {}/{}", i, configurations.size());
-        }
+        });
+        LOG.trace("Configurations to states: {}", count);
+    }
+
+    private void addStatesAndTransitions(TransitionSystemFactory factory) {
+        int count = forEachConfigurationLevel(bes, states -> states.values().forEach(factory::addState),
+                (source, sourceState, event, target, targetState) ->
+                        factory.addTransition(sourceState, event.getName(), targetState));
+        LOG.trace("Configurations to states: {}", count);
     }
 
+    /**
+     * Returns the states given by convert() to the configurations of the structure. Unlike convert(), this keeps every
+     * configuration in memory.
+     */
     public BiMap<Set<Event>, String> getConfigurationStateMap() {
+        BiMap<Set<Event>, String> configToStateMap = HashBiMap.create();
+        if (bes instanceof FeaturedEventStructure) {
+            forEachConfigurationLevel(bes, configToStateMap::putAll, null);
+        } else {
+            BitSetConfigurationEnumerator enumerator = new BitSetConfigurationEnumerator(bes);
+            EventIndex index = enumerator.getEventIndex();
+            enumerator.exploreConfigurationGraph(new ConfigurationGraphListener() {
+                @Override
+                public void onConfiguration(int id, BitSet configuration) {
+                    configToStateMap.put(index.toEvents(configuration), getStateName(id));
+                }
+
+                @Override
+                public void onExtension(int source, int event, int target) {
+                }
+            });
+        }
         return configToStateMap;
     }
 }
@@ -0,0 +1,181 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.utils.translators;
+
+import be.vibes.ts.Action;
+import be.vibes.ts.FeaturedTransitionSystem;
+import be.vibes.ts.State;
+import be.vibes.ts.Transition;
+import com.google.common.base.Preconditions;
+import uk.kcl.info.utils.bdd.BddManager;
+import uk.kcl.info.utils.bdd.FExpressionBddEncoder;
+
+import java.util.*;
+
+/**
+ * Featured counterpart of {@link ActionReachabilityIndex}: for every pair of actions (a, b), the set of products in
+ * which b can be executed after a, encoded as a BDD over the features. For each action a, a fixpoint over the states
+ * computes the products under which each state can be reached after an a-transition, conjoining the feature
+ * expression of every transition on the way; a path only counts in the products where all its transitions exist.
+ * Everything is computed in the constructor, the queries then only read the resulting tables.
+ */
+public class FeaturedActionReachabilityIndex implements ActionReachability {
+
+    private final BddManager manager = new BddManager();
+    private final Map<Action, Integer> actionIds = new HashMap<>();
+    // reachable[a][b] = products in which b can be executed after a
+    private final int[][] reachable;
+    // predecessors[a][b] = products in which b can be executed immediately after a
+    private final int[][] predecessors;
+    // Verdicts (non-empty product sets) of both tables, one bit per pair of actions
+    private final long[][] reachableVerdicts;
+    private final long[][] predecessorVerdicts;
+
+    public FeaturedActionReachabilityIndex(FeaturedTransitionSystem fts) {
+        Preconditions.checkNotNull(fts, "Featured transition system may not be null!");
+        FExpressionBddEncoder encoder = new FExpressionBddEncoder(manager);
+        for (Iterator<Action> it = fts.actions(); it.hasNext(); ) {
+            actionIds.putIfAbsent(it.next(), actionIds.size());
+        }
+
+        // Transitions as (source, action, target, guard), transitions existing in no product being dropped
+        Map<State, Integer> stateIds = new HashMap<>();
+        stateIds.put(fts.getInitialState(), 0);
+        List<int[]> edges = new ArrayList<>();
+        for (Iterator<Transition> it = fts.transitions(); it.hasNext(); ) {
+            Transition t = it.next();
+            int source = stateIds.computeIfAbsent(t.getSource(), k -> stateIds.size());
+            int target = stateIds.computeIfAbsent(t.getTarget(), k -> stateIds.size());
+            int action = actionIds.computeIfAbsent(t.getAction(), k -> actionIds.size());
+            int guard = encoder.encode(fts.getFExpression(t));
+            if (guard != BddManager.FALSE) {
+                edges.add(new int[]{source, action, target, guard});
+            }
+        }
+
+        int states = stateIds.size();
+        int actions = actionIds.size();
+        List<List<int[]>> outgoing = new ArrayList<>(states);
+        List<List<int[]>> byAction = new ArrayList<>(actions);
+        for (int s = 0; s < states; s++) {
+            outgoing.add(new ArrayList<>());
+        }
+        for (int a = 0; a < actions; a++) {
+            byAction.add(new ArrayList<>());
+        }
+        for (int[] edge : edges) {
+            outgoing.get(edge[0]).add(edge);
+            byAction.get(edge[1]).add(edge);
+        }
+
+        this.reachable = new int[actions][actions];
+        this.predecessors = new int[actions][actions];
+        int[] products = new int[states];
+        for (int a = 0; a < actions; a++) {
+            // Immediate successors: products of the a-transitions entering each state
+            Arrays.fill(products, BddManager.FALSE);
+            for (int[] edge : byAction.get(a)) {
+                products[edge[2]] = manager.or(products[edge[2]], edge[3]);
+            }
+            for (int[] edge : edges) {
+                int condition = manager.and(products[edge[0]], edge[3]);
+                predecessors[a][edge[1]] = manager.or(predecessors[a][edge[1]], condition);
+            }
+
+            // Fixpoint: products under which each state can be reached after an a-transition
+            Deque<Integer> worklist = new ArrayDeque<>();
+            boolean[] queued = new boolean[states];
+            for (int s = 0; s < states; s++) {
+                if (products[s] != BddManager.FALSE) {
+                    worklist.add(s);
+                    queued[s] = true;
+                }
+            }
+            while (!worklist.isEmpty()) {
+                int s = worklist.poll();
+                queued[s] = false;
+                for (int[] edge : outgoing.get(s)) {
+                    int updated = manager.or(products[edge[2]], manager.and(products[s], edge[3]));
+                    if (updated != products[edge[2]]) {
+                        products[edge[2]] = updated;
+                        if (!queued[edge[2]]) {
+                            worklist.add(edge[2]);
+                            queued[edge[2]] = true;
+                        }
+                    }
+                }
+            }
+            for (int[] edge : edges) {
+                int condition = manager.and(products[edge[0]], edge[3]);
+                reachable[a][edge[1]] = manager.or(reachable[a][edge[1]], condition);
+            }
+        }
+
+        this.reachableVerdicts = toVerdicts(reachable);
+        this.predecessorVerdicts = toVerdicts(predecessors);
+    }
+
+    private static long[][] toVerdicts(int[][] table) {
+        long[][] verdicts = new long[table.length][(table.length + 63) >>> 6];
+        for (int a = 0; a < table.length; a++) {
+            for (int b = 0; b < table[a].length; b++) {
+                if (table[a][b] != BddManager.FALSE) {
+                    verdicts[a][b >>> 6] |= 1L << b;
+                }
+            }
+        }
+        return verdicts;
+    }
+
+    @Override
+    public boolean isReachable(Action from, Action to) {
+        return getVerdict(reachableVerdicts, from, to);
+    }
+
+    @Override
+    public boolean isPredecessor(Action source, Action target) {
+        return getVerdict(predecessorVerdicts, source, target);
+    }
+
+    // BDD (of getBddManager()) of the products in which 'to' can be executed after 'from'
+    public int getReachabilityProducts(Action from, Action to) {
+        return get(reachable, from, to);
+    }
+
+    // BDD (of getBddManager()) of the products in which 'target' can be executed immediately after 'source'
+    public int getPredecessorProducts(Action source, Action target) {
+        return get(predecessors, source, target);
+    }
+
+    public BddManager getBddManager() {
+        return manager;
+    }
+
+    private boolean getVerdict(long[][] verdicts, Action row, Action column) {
+        Integer r = actionIds.get(row);
+        Integer c = actionIds.get(column);
+        return r != null && c != null && (verdicts[r][c >>> 6] & (1L << c)) != 0;
+    }
+
+    private int get(int[][] table, Action row, Action column) {
+        Integer r = actionIds.get(row);
+        Integer c = actionIds.get(column);
+        return r == null || c == null ? BddManager.FALSE : table[r][c];
+    }
+}
@@ -18,66 +18,50 @@
 
 package uk.kcl.info.utils.translators;
 
-import be.vibes.fexpression.FExpression;
-import be.vibes.ts.*;
+import be.vibes.ts.FeaturedTransitionSystem;
+import be.vibes.ts.FeaturedTransitionSystemFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.kcl.info.bfm.Event;
 import uk.kcl.info.bfm.FeaturedEventStructure;
+import uk.kcl.info.utils.fexpression.FExpressionCache;
 
-import java.util.Iterator;
 import java.util.Objects;
-import java.util.Set;
+
+import static uk.kcl.info.utils.translators.TranslationUtils.INITIAL_STATE;
+import static uk.kcl.info.utils.translators.TranslationUtils.addStatesAndTransitions;
 
 public class FesToFtsConverter implements ModelConverter<FeaturedEventStructure<?>, FeaturedTransitionSystem> {
 
     private static final Logger LOG = LoggerFactory.getLogger(FesToFtsConverter.class);
 
     private final FeaturedEventStructure<?> fes;
-    private final BesToTsConverter besToTsConverter;
-    private TransitionSystem ts;
-    private FeaturedTransitionSystemFactory factory;
+    private final FExpressionCache cache;
 
     public FesToFtsConverter(FeaturedEventStructure<?> fes) {
+        this(fes, fes.getFExpressionCache());
+    }
+
+    public FesToFtsConverter(FeaturedEventStructure<?> fes, FExpressionCache cache) {
         this.fes = Objects.requireNonNull(fes);
-        this.besToTsConverter = new BesToTsConverter(fes);
+        this.cache = Objects.requireNonNull(cache);
     }
 
     public FeaturedTransitionSystem convert() {
-        this.ts = besToTsConverter.convert();
-        this.factory = new FeaturedTransitionSystemFactory(ts.getInitialState().getName());
-
-        addFeaturedTransitions();
-
+        FeaturedTransitionSystemFactory factory = new FeaturedTransitionSystemFactory(INITIAL_STATE);
+        addActions(factory);
+        int count = addStatesAndTransitions(factory, fes, cache);
+        LOG.trace("Configurations to states: {}", count);
         return factory.build();
     }
 
-    private void addFeaturedTransitions() {
+    private void addActions(FeaturedTransitionSystemFactory factory) {
         int i = 0;
-        for (Iterator<Transition> it = ts.transitions(); it.hasNext(); ) {
-            Transition t = it.next();
-            String source = t.getSource().getName();
-            String action = t.getAction().getName();
-            String target = t.getTarget().getName();
-
-            Set<Event> sourceConfig = getConfiguration(source);
-            Set<Event> targetConfig = getConfiguration(target);
-
-            FExpression expr = fes.getFExpression(sourceConfig)
-                    .and(fes.getFExpression(targetConfig))
-                    .applySimplification()
-                    .toCnf();
-
-            if (!expr.isFalse()) {
-                factory.addTransition(source, action, expr, target);
-            }
+        for (Event ev : fes.getAllEvents()) {
+            factory.addAction(ev.getName());
 
             i++;
-            LOG.trace("Adding feature expressions: {}/{}", i, ts.getTransitionsCount());
+            LOG.trace("Events to actions: {}/{}", i, fes.getEventsCount());
         }
     }
-
-    private Set<Event> getConfiguration(String state) {
-        return besToTsConverter.getConfigurationStateMap().inverse().get(state);
-    }
 }
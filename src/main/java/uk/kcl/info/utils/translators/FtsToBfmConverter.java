@@ -29,6 +29,7 @@ import org.slf4j.LoggerFactory;
 import uk.kcl.info.bfm.*;
 
 import java.util.*;
+import java.util.stream.IntStream;
 
 import static uk.kcl.info.utils.translators.TranslationUtils.*;
 
@@ -41,7 +42,7 @@ public class FtsToBfmConverter<F extends Feature<F>> implements ModelConverter<F
 
     private BehavioralFeatureModelFactory factory;
     private final Map<Event, F> featureMap = new HashMap<>();
-    private final Map<Transition, Event> tMap = new HashMap<>();
+    private final Map<Action, Event> eventMap = new LinkedHashMap<>();
 
     public FtsToBfmConverter(FeatureModel<F> fm, FeaturedTransitionSystem fts) {
         this.fm = Objects.requireNonNull(fm);
@@ -72,7 +73,10 @@ public class FtsToBfmConverter<F extends Feature<F>> implements ModelConverter<F
                 FExpression expr = fts.getFExpression(t);
                 combinedExpr.orWith(expr);
                 exprList.add(expr);
-                tMap.put(t, e);
+            }
+            if (!exprList.isEmpty()) {
+                // Actions without transitions are related to no other action
+                eventMap.put(a, e);
             }
 
             combinedExpr = combinedExpr.applySimplification().toCnf();
@@ -87,47 +91,69 @@ public class FtsToBfmConverter<F extends Feature<F>> implements ModelConverter<F
         }
     }
 
+    /*
+     * Conflicts and bundles only depend on actions, so each pair of actions is examined once (and not once per pair
+     * of transitions). Actions are analysed in parallel against the precomputed reachability tables; the results are
+     * then merged into the factory and the conflict set by a single thread.
+     */
     private Set<CausalityRelation> computeConflictsAndCandidateBundles() {
+        // Products relating each pair of actions, computed once for all the queries below
+        FeaturedActionReachabilityIndex reachability = new FeaturedActionReachabilityIndex(fts);
+        List<Action> actions = new ArrayList<>(eventMap.keySet());
+
+        List<ActionRelations> relations = IntStream.range(0, actions.size()).parallel()
+                .mapToObj(i -> computeRelations(i, actions, reachability))
+                .toList();
+
         ConflictSet conflicts = new ConflictSet();
         Set<CausalityRelation> candidateBundles = new HashSet<>();
         int i = 0;
+        for (ActionRelations relation : relations) {
+            Event e1 = relation.event();
+            for (Event e2 : relation.conflicts()) {
+                F lca = fm.getLeastCommonAncestor(featureMap.get(e1), featureMap.get(e2));
+                factory.addConflict(lca.getFeatureName(), e1, e2);
+                conflicts.addConflict(e1, e2);
+            }
+            if (!relation.bundle().isEmpty()) {
+                candidateBundles.add(new CausalityRelation(relation.bundle(), e1));
+            }
 
-        for (Map.Entry<Transition, Event> entry1 : tMap.entrySet()) {
-            Action a1 = entry1.getKey().getAction();
-            Event e1 = entry1.getValue();
-
-            Set<Event> bundle = new HashSet<>();
+            i++;
+            LOG.trace("Actions to conflicts and candidate causalities: {}/{}", i, actions.size());
+        }
 
-            for (Map.Entry<Transition, Event> entry2 : tMap.entrySet()) {
-                Action a2 = entry2.getKey().getAction();
+        return splitBundlesOnConflicts(candidateBundles, conflicts);
+    }
 
-                if (!a1.equals(a2)) {
-                    Event e2 = entry2.getValue();
+    // Conflicts are only reported towards the following actions, each unordered pair being in conflict once
+    private ActionRelations computeRelations(int index, List<Action> actions, ActionReachability reachability) {
+        Action a1 = actions.get(index);
+        List<Event> conflicting = new ArrayList<>();
+        Set<Event> bundle = new HashSet<>();
 
-                    boolean a1ToA2 = isReachable(fts, a1, a2);
-                    boolean a2ToA1 = isReachable(fts, a2, a1);
+        for (int j = 0; j < actions.size(); j++) {
+            if (j != index) {
+                Action a2 = actions.get(j);
+                Event e2 = eventMap.get(a2);
 
-                    if (!a1ToA2 && !a2ToA1) {
-                        F lca = fm.getLeastCommonAncestor(featureMap.get(e1), featureMap.get(e2));
-                        factory.addConflict(lca.getFeatureName(), e1, e2);
-                        conflicts.addConflict(e1, e2);
-                    }
+                boolean a1ToA2 = reachability.isReachable(a1, a2);
+                boolean a2ToA1 = reachability.isReachable(a2, a1);
 
-                    if (isPredecessor(fts, a2, a1) && !a1ToA2) {
-                        bundle.add(e2);
-                    }
+                if (j > index && !a1ToA2 && !a2ToA1) {
+                    conflicting.add(e2);
                 }
-            }
 
-            if (!bundle.isEmpty()) {
-                candidateBundles.add(new CausalityRelation(bundle, e1));
+                if (reachability.isPredecessor(a2, a1) && !a1ToA2) {
+                    bundle.add(e2);
+                }
             }
-
-            i++;
-            LOG.trace("Transitions to conflicts and candidate causalities: {}/{}", i, tMap.size());
         }
 
-        return splitBundlesOnConflicts(candidateBundles, conflicts);
+        return new ActionRelations(eventMap.get(a1), conflicting, bundle);
+    }
+
+    private record ActionRelations(Event event, List<Event> conflicts, Set<Event> bundle) {
     }
 
     private void addCausalities(Set<CausalityRelation> bundles) {
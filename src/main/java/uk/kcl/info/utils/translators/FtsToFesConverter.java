@@ -42,7 +42,8 @@ public class FtsToFesConverter implements ModelConverter<FeaturedTransitionSyste
     public FtsToFesConverter(FeatureModel<?> fm, FeaturedTransitionSystem fts) {
         this.fts = Objects.requireNonNull(fts);
         this.fm = Objects.requireNonNull(fm);
-        this.converter = new TsToBesConverter(fts);
+        // Actions are related in the products where the paths between them exist
+        this.converter = new TsToBesConverter(fts, new FeaturedActionReachabilityIndex(fts));
     }
 
     public FeaturedEventStructure<?> convert() {
@@ -20,48 +20,94 @@ package uk.kcl.info.utils.translators;
 
 import be.vibes.fexpression.FExpression;
 import be.vibes.ts.*;
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
 import com.google.common.collect.Lists;
+import uk.kcl.info.bfm.BundleEventStructure;
 import uk.kcl.info.bfm.CausalityRelation;
 import uk.kcl.info.bfm.ConflictSet;
 import uk.kcl.info.bfm.Event;
+import uk.kcl.info.bfm.FeaturedEventStructure;
+import uk.kcl.info.bfm.MaximalCliqueFinder;
+import uk.kcl.info.utils.fexpression.FExpressionCache;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
- * Utility class to hold shared helper methods (like getSingleDifference, reachability, etc.)
+ * Utility class to hold shared helper methods (like successor probing between configuration levels, reachability, etc.)
  */
 public class TranslationUtils {
 
     public static final String INITIAL_STATE = "State_0";
 
-    public static BiMap<Set<Event>, String> indexConfigurationsAsStates(Collection<Set<Set<Event>>> configurations) {
-        BiMap<Set<Event>, String> configToStateMap = HashBiMap.create();
-        int stateCounter = 0;
-        configToStateMap.put(Collections.emptySet(), INITIAL_STATE);
-        stateCounter++;
+    // State_0 is the initial state
+    public static String getStateName(int id) {
+        return "State_" + id;
+    }
+
+    @FunctionalInterface
+    public interface SuccessorHandler<S> {
+        void handle(Set<Event> source, S sourceState, Event event, Set<Event> target, S targetState);
+    }
 
-        for (Set<Set<Event>> configSet : configurations) {
-            for (Set<Event> config : configSet) {
-                if (!config.isEmpty() && !configToStateMap.containsKey(config)) {
-                    configToStateMap.put(config, "State_" + stateCounter++);
+    /*
+     * Calls the handler for every step c -e-> c ∪ {e} between two adjacent levels of configurations. Instead of
+     * comparing every pair of configurations, each extension c ∪ {e} is probed in the next level, so the cost follows
+     * the number of events and real edges rather than the width of the next level. The target set given to the
+     * handler is reused between calls: it must not be stored.
+     */
+    public static <S> void forEachSuccessor(Map<Set<Event>, S> currentLevel, Map<Set<Event>, S> nextLevel,
+                                            Collection<Event> events, SuccessorHandler<S> handler) {
+        for (Map.Entry<Set<Event>, S> source : currentLevel.entrySet()) {
+            Set<Event> probe = new HashSet<>(source.getKey());
+            for (Event e : events) {
+                if (probe.add(e)) {
+                    S targetState = nextLevel.get(probe);
+                    if (targetState != null) {
+                        handler.handle(source.getKey(), source.getValue(), e, probe, targetState);
+                    }
+                    probe.remove(e);
                 }
             }
         }
-
-        return configToStateMap;
     }
 
-    public static boolean isSingleStepSuccessor(Set<Event> smaller, Set<Event> larger) {
-        return larger.size() == smaller.size() + 1 && larger.containsAll(smaller);
+    /*
+     * Configurations are streamed by size: only the states of two adjacent levels are kept in memory. Each level is
+     * handed to the state handler once its states are named, then its steps from the previous level are handed to the
+     * transition handler, if any. Returns the number of states.
+     */
+    public static int forEachConfigurationLevel(BundleEventStructure bes, Consumer<Map<Set<Event>, String>> stateHandler,
+                                                SuccessorHandler<String> transitionHandler) {
+        List<Event> events = bes.getAllEvents();
+        int stateCounter = 1;
+        Map<Set<Event>, String> previousStates = null;
+
+        for (Iterator<Set<Set<Event>>> it = bes.getConfigurationLevels(); it.hasNext(); ) {
+            Set<Set<Event>> level = it.next();
+            Map<Set<Event>, String> states = new HashMap<>();
+            for (Set<Event> config : level) {
+                states.put(config, config.isEmpty() ? INITIAL_STATE : getStateName(stateCounter++));
+            }
+            stateHandler.accept(states);
+            if (previousStates != null && transitionHandler != null) {
+                forEachSuccessor(previousStates, states, events, transitionHandler);
+            }
+            previousStates = states;
+        }
+        return stateCounter;
     }
 
-    public static Event getSingleDifference(Set<Event> smaller, Set<Event> larger) {
-        Set<Event> diff = new HashSet<>(larger);
-        diff.removeAll(smaller);
-        return (diff.size() == 1) ? diff.iterator().next() : null;
+    // The structure keeps the feature expressions of the two levels being linked
+    public static int addStatesAndTransitions(FeaturedTransitionSystemFactory factory, FeaturedEventStructure<?> fes,
+                                              FExpressionCache cache) {
+        return forEachConfigurationLevel(fes, states -> factory.addStates(states.values().toArray(new String[0])),
+                (source, sourceState, event, target, targetState) -> {
+                    FExpression fexpr = cache.toCnf(cache.and(fes.getFExpression(source), fes.getFExpression(target)));
+                    if (!fexpr.isFalse()) {
+                        factory.addTransition(sourceState, event.getName(), fexpr, targetState);
+                    }
+                });
     }
 
     public static boolean isPredecessor(TransitionSystem ts, Action source, Action target) {
@@ -107,7 +153,7 @@ public class TranslationUtils {
         return false;
     }
 
-    public static boolean isPredecessor(FeaturedTransitionSystem fts, Action source, Action target) {
+    public static boolean isPredecessor(FeaturedTransitionSystem fts, Action source, Action target, FExpressionCache cache) {
 
         for (Iterator<Transition> it1 = fts.getTransitions(source); it1.hasNext(); ) {
             Transition t1 = it1.next();
@@ -118,8 +164,7 @@ public class TranslationUtils {
 
                 if (t2.getAction().equals(target)) {
                     FExpression fexpr2 = fts.getFExpression(t2);
-                    FExpression combined = fexpr1.and(fexpr2).applySimplification();
-                    if (!combined.isFalse()) {
+                    if (!cache.isFalse(cache.and(fexpr1, fexpr2))) {
                         return true;
                     }
                 }
@@ -129,7 +174,8 @@ public class TranslationUtils {
         return false;
     }
 
-    private static FExpression canReachActionFrom(FeaturedTransitionSystem fts, State current, FExpression f1, Action destination, Set<State> visited) {
+    private static FExpression canReachActionFrom(FeaturedTransitionSystem fts, State current, FExpression f1, Action destination,
+                                                  Set<State> visited, FExpressionCache cache) {
         if (visited.contains(current)) {
             return FExpression.falseValue();
         }
@@ -139,10 +185,10 @@ public class TranslationUtils {
             Transition t = it.next();
             FExpression f2 = fts.getFExpression(t);
             if (t.getAction().equals(destination)) {
-                return f1.and(f2);
+                return cache.and(f1, f2);
             } else {
-                FExpression f3 = canReachActionFrom(fts, t.getTarget(), f1.and(f2), destination, visited);
-                if (!f3.applySimplification().isFalse()) {
+                FExpression f3 = canReachActionFrom(fts, t.getTarget(), cache.and(f1, f2), destination, visited, cache);
+                if (!cache.isFalse(f3)) {
                     return f3;
                 }
             }
@@ -150,25 +196,27 @@ public class TranslationUtils {
         return FExpression.falseValue();
     }
 
-    public static boolean isReachable(FeaturedTransitionSystem fts, Action a1, Action a2) {
+    public static boolean isReachable(FeaturedTransitionSystem fts, Action a1, Action a2, FExpressionCache cache) {
         Set<State> visited = new HashSet<>();
 
         List<Transition> transitions = Lists.newArrayList(fts.getTransitions(a1));
         Set<State> targets = transitions.stream().map(Transition::getTarget).collect(Collectors.toSet());
 
         for (State t:targets){
-            FExpression fexpr = canReachActionFrom(fts, t, FExpression.trueValue(), a2, visited);
-            if(!fexpr.applySimplification().isFalse()){
+            FExpression fexpr = canReachActionFrom(fts, t, FExpression.trueValue(), a2, visited, cache);
+            if(!cache.isFalse(fexpr)){
                 return true;
             }
         }
         return false;
     }
 
+    // Bundles are split in parallel; the finder is an immutable snapshot, memoising the bundles shared by several targets
     public static Set<CausalityRelation> splitBundlesOnConflicts(Set<CausalityRelation> bundles, ConflictSet conflicts) {
-        return bundles.stream()
+        MaximalCliqueFinder cliqueFinder = conflicts.getMaximalCliqueFinder();
+        return bundles.parallelStream()
                 .flatMap(causality ->
-                        conflicts.findMaximalCliques(causality.getBundle()).stream()
+                        cliqueFinder.findMaximalCliques(causality.getBundle()).stream()
                                 .map(clique -> new CausalityRelation(clique, causality.getTarget()))
                 )
                 .collect(Collectors.toSet());
@@ -35,12 +35,19 @@ public class TsToBesConverter implements ModelConverter<TransitionSystem, Bundle
     private final BundleEventStructureFactory factory;
     private final TransitionSystem ts;
     private final Map<Action, Event> eventMap = new HashMap<>();
+    private ActionReachability reachability;
 
     public TsToBesConverter(TransitionSystem ts) {
         this.ts = Objects.requireNonNull(ts);
         this.factory = new BundleEventStructureFactory();
     }
 
+    // Conflicts and causalities are derived from the given reachability instead of the plain TS one
+    public TsToBesConverter(TransitionSystem ts, ActionReachability reachability) {
+        this(ts);
+        this.reachability = Objects.requireNonNull(reachability);
+    }
+
     public BundleEventStructure convert() {
 
         // Step 1: Collect actions & add events
@@ -67,6 +74,10 @@ public class TsToBesConverter implements ModelConverter<TransitionSystem, Bundle
 
     private Set<CausalityRelation> computeConflictsAndCandidateBundles() {
         int i = 0;
+        // Built once: every reachability query below is then a table lookup
+        if (reachability == null) {
+            reachability = new ActionReachabilityIndex(ts);
+        }
         ConflictSet conflicts = new ConflictSet();
         Set<CausalityRelation> candidateBundles = new HashSet<>();
 
@@ -80,15 +91,15 @@ public class TsToBesConverter implements ModelConverter<TransitionSystem, Bundle
                 if (!a1.equals(a2)) {
                     Event e2 = entry2.getValue();
 
-                    boolean a1ToA2 = isReachable(ts, a1, a2);
-                    boolean a2ToA1 = isReachable(ts, a2, a1);
+                    boolean a1ToA2 = reachability.isReachable(a1, a2);
+                    boolean a2ToA1 = reachability.isReachable(a2, a1);
 
                     if (!a1ToA2 && !a2ToA1) {
                         factory.addConflict(e1, e2);
                         conflicts.addConflict(e1, e2);
                     }
 
-                    if (isPredecessor(ts, a2, a1) && !a1ToA2) {
+                    if (reachability.isPredecessor(a2, a1) && !a1ToA2) {
                         bundle.add(e2);
                     }
                 }
@@ -0,0 +1,102 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm;
+
+import be.vibes.fexpression.FExpression;
+import be.vibes.solver.Group;
+import be.vibes.solver.GroupType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BehavioralFeatureTest {
+
+    @Test
+    public void testAggregatesFollowTheTreeUntilFrozen() {
+        BehavioralFeature root = new BehavioralFeature("root");
+        Event a = root.addEvent(new Event("a"), FExpression.trueValue());
+        assertEquals(Set.of(root), root.getAllRecursiveFeatures());
+        assertEquals(Set.of(a), root.getAllRecursiveEvents());
+
+        // The child is attached before its group, as by the copy constructor
+        BehavioralFeature child = new BehavioralFeature("child");
+        Event b = child.addEvent(new Event("b"), FExpression.trueValue());
+        Group<BehavioralFeature> group = new Group<>(GroupType.OPTIONAL);
+        group.getFeatures().add(child);
+        child.setParentGroup(group);
+        root.getChildren().add(group);
+        group.setParentFeature(root);
+
+        assertEquals(Set.of(root, child), root.getAllRecursiveFeatures());
+        assertEquals(Set.of(a, b), root.getAllRecursiveEvents());
+    }
+
+    @Test
+    public void testCachedAggregatesAreRefreshed() {
+        BehavioralFeature root = new BehavioralFeature("root");
+        BehavioralFeature middle = attach(root, "middle");
+        BehavioralFeature leaf = attach(middle, "leaf");
+        Event a = root.addEvent(new Event("a"), FExpression.trueValue());
+        root.freezeTree();
+
+        Set<Event> events = root.getAllRecursiveEvents();
+        Set<CausalityRelation> causalities = root.getAllRecursiveCausalities();
+        ConflictSet conflicts = root.getRecursiveConflictSet();
+        assertSame(events, root.getAllRecursiveEvents(), "Aggregates of a frozen tree should be cached");
+        assertSame(conflicts, root.getRecursiveConflictSet(), "Aggregates of a frozen tree should be cached");
+
+        Event b = leaf.addEvent(new Event("b"), FExpression.trueValue());
+        Event c = leaf.addEvent(new Event("c"), FExpression.trueValue());
+        assertEquals(Set.of(a, b, c), root.getAllRecursiveEvents());
+        assertEquals(Set.of(b, c), middle.getAllRecursiveEvents());
+        assertEquals(causalities, root.getAllRecursiveCausalities());
+
+        CausalityRelation causality = leaf.addCausality(Set.of(b), c);
+        assertEquals(Set.of(causality), root.getAllRecursiveCausalities());
+
+        leaf.updateConflicts(set -> set.addConflict(b, c));
+        assertNotSame(conflicts, root.getRecursiveConflictSet());
+        assertTrue(root.getRecursiveConflictSet().areInConflict(b, c));
+        assertTrue(root.getAllRecursiveConflicts().areInConflict(b, c));
+        assertEquals(Set.of(root, middle, leaf), root.getAllRecursiveFeatures());
+    }
+
+    @Test
+    public void testFrozenTreeMayNotChange() {
+        BehavioralFeature root = new BehavioralFeature("root");
+        attach(root, "child");
+        root.freezeTree();
+
+        assertThrows(IllegalStateException.class, () -> attach(root, "late"));
+    }
+
+    private static BehavioralFeature attach(BehavioralFeature parent, String name) {
+        Group<BehavioralFeature> group = new Group<>(GroupType.MANDATORY);
+        parent.getChildren().add(group);
+        group.setParentFeature(parent);
+
+        BehavioralFeature feature = new BehavioralFeature(name);
+        group.getFeatures().add(feature);
+        feature.setParentGroup(group);
+        return feature;
+    }
+
+}
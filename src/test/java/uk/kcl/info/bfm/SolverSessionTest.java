@@ -0,0 +1,83 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm;
+
+import be.vibes.fexpression.FExpression;
+import be.vibes.solver.FeatureModel;
+import be.vibes.solver.exception.ConstraintSolvingException;
+import be.vibes.solver.io.xml.XmlLoaders;
+import org.junit.jupiter.api.Test;
+import uk.kcl.info.bfm.configuration.EnumerationStatistics;
+import uk.kcl.info.bfm.exceptions.BehavioralFeatureModelDefinitionException;
+import uk.kcl.info.bfm.io.xml.XmlLoaderUtility;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolverSessionTest {
+
+    private static final String BASE_PATH = "src/test/resources/testcases/";
+
+    @Test
+    public void testEnumerationLeavesTheSolverReset() throws BehavioralFeatureModelDefinitionException, ConstraintSolvingException {
+        BehavioralFeatureModel bfm = XmlLoaderUtility.loadBehavioralFeatureModel(BASE_PATH + "bfm/robot.bfm");
+        int products = countProducts(bfm);
+
+        TreeMap<Integer, Set<Set<Event>>> configurations = bfm.getAllConfigurations();
+        long solverCalls = bfm.getEnumerationStatistics().getSolverCalls();
+        assertTrue(solverCalls > 0, "Products should be enumerated by the solver");
+
+        // A frame left on the solver would restrict the products of the next enumeration
+        assertEquals(configurations, bfm.getAllConfigurations());
+        assertEquals(solverCalls, bfm.getEnumerationStatistics().getSolverCalls());
+        assertEquals(products, countProducts(bfm), "Closing the session should reset the solver");
+    }
+
+    @Test
+    public void testQueriesPopTheirFrames() throws ConstraintSolvingException {
+        FeatureModel<?> fm = XmlLoaders.loadFeatureModel(BASE_PATH + "fm/xml/robot.xml");
+        int products = countProducts(fm);
+        EnumerationStatistics statistics = new EnumerationStatistics();
+
+        SolverSession session = new SolverSession(fm, statistics);
+        assertFalse(session.isSatisfiable(FExpression.falseValue()));
+        assertTrue(session.isSatisfiable(FExpression.trueValue()), "The assumption of a query should be popped");
+        assertEquals(products, session.getSolutions(FExpression.trueValue()).size());
+
+        // The root feature is in every product
+        session.push(new FExpression(fm.getRootFeature()).not());
+        assertFalse(session.isSatisfiable(FExpression.trueValue()));
+        assertEquals(4, statistics.getSolverCalls());
+
+        session.close();
+        assertEquals(products, countProducts(fm), "Closing the session should pop its frames and reset the solver");
+    }
+
+    private static int countProducts(FeatureModel<?> fm) throws ConstraintSolvingException {
+        int count = 0;
+        for (Iterator<?> it = fm.getSolutions(); it.hasNext(); it.next()) {
+            count++;
+        }
+        return count;
+    }
+
+}
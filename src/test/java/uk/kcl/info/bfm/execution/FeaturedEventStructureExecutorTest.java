@@ -0,0 +1,77 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm.execution;
+
+import be.vibes.fexpression.configuration.Configuration;
+import be.vibes.solver.FeatureModel;
+import be.vibes.solver.exception.ConstraintSolvingException;
+import be.vibes.solver.io.xml.XmlLoaders;
+import be.vibes.ts.exception.UnresolvedFExpression;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import uk.kcl.info.bfm.BehavioralFeatureModel;
+import uk.kcl.info.bfm.FeaturedEventStructure;
+import uk.kcl.info.bfm.exceptions.BehavioralFeatureModelDefinitionException;
+import uk.kcl.info.bfm.exceptions.BundleEventStructureDefinitionException;
+import uk.kcl.info.bfm.io.xml.XmlLoaderUtility;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FeaturedEventStructureExecutorTest {
+
+    private static final String BASE_PATH = "src/test/resources/testcases/";
+    private static final String FM_IN_PATH = BASE_PATH + "fm/xml/";
+    private static final String FES_IN_PATH = BASE_PATH + "fes/";
+    private static final String BFM_IN_PATH = BASE_PATH + "bfm/";
+
+    @ParameterizedTest
+    @ValueSource(strings = {"robot.fes", "robot-linear.fes"})
+    public void testParallelExplorationOfFes(String fesFileName) throws BundleEventStructureDefinitionException, ConstraintSolvingException, UnresolvedFExpression {
+        FeatureModel<?> fm = XmlLoaders.loadFeatureModel(FM_IN_PATH + "robot.xml");
+        FeaturedEventStructure<?> fes = XmlLoaderUtility.loadFeaturedEventStructure(FES_IN_PATH + fesFileName, fm);
+
+        assertParallelMatchesSequential(() -> new FeaturedEventStructureExecutor(fes, fm));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"robot.bfm", "robot-linear.bfm"})
+    public void testParallelExplorationOfBfm(String bfmFileName) throws BehavioralFeatureModelDefinitionException, ConstraintSolvingException, UnresolvedFExpression {
+        BehavioralFeatureModel bfm = XmlLoaderUtility.loadBehavioralFeatureModel(BFM_IN_PATH + bfmFileName);
+
+        assertParallelMatchesSequential(() -> new FeaturedEventStructureExecutor(bfm));
+    }
+
+    private static void assertParallelMatchesSequential(Supplier<FeaturedEventStructureExecutor> executors) throws ConstraintSolvingException, UnresolvedFExpression {
+        Map<Configuration, Set<List<String>>> sequential = executors.get().getAllTraces();
+
+        FeaturedEventStructureExecutor platform = executors.get();
+        platform.setParallelism(4);
+        assertEquals(sequential, platform.getAllTraces(), "Parallel and sequential explorations should give the same traces");
+
+        FeaturedEventStructureExecutor virtual = executors.get();
+        virtual.setParallelism(4);
+        virtual.setVirtualThreads(true);
+        assertEquals(sequential, virtual.getAllTraces(), "Explorations on virtual threads should give the same traces");
+    }
+}
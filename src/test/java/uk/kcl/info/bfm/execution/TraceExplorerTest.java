@@ -0,0 +1,300 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.bfm.execution;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import uk.kcl.info.bfm.BundleEventStructure;
+import uk.kcl.info.bfm.BundleEventStructureFactory;
+import uk.kcl.info.bfm.CausalityRelation;
+import uk.kcl.info.bfm.Event;
+import uk.kcl.info.bfm.exceptions.BundleEventStructureDefinitionException;
+import uk.kcl.info.bfm.io.xml.XmlLoaderUtility;
+
+import java.io.File;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TraceExplorerTest {
+
+    private static final String BASE_PATH = "src/test/resources/testcases/";
+    private static final String BES_IN_PATH = BASE_PATH + "bes/";
+
+    @ParameterizedTest
+    @ValueSource(strings = {"robot.bes", "robot-linear.bes"})
+    public void testTracesMatchRecursiveExploration(String besFileName) throws BundleEventStructureDefinitionException {
+        BundleEventStructure bes = XmlLoaderUtility.loadBundleEventStructure(new File(BES_IN_PATH + besFileName));
+        assertSameTraces(bes);
+    }
+
+    @Test
+    public void testRandomStructuresMatchRecursiveExploration() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            assertSameTraces(randomStructure(random, 2 + random.nextInt(6)));
+        }
+    }
+
+    @Test
+    public void testCountTracesOfIndependentEvents() {
+        BundleEventStructure bes = independentEvents(4);
+
+        // Σ 4!/(4-k)! for k = 0..4
+        assertEquals(BigInteger.valueOf(65), new TraceExplorer(bes).countTraces());
+        assertEquals(65, new BundleEventStructureExecutor(bes).getAllTraces().size());
+    }
+
+    @Test
+    public void testExhaustiveExplorationReport() {
+        List<List<String>> traces = new ArrayList<>();
+        ExplorationReport report = new TraceExplorer(independentEvents(3)).forEachTrace(traces::add, new ExplorationOptions());
+
+        assertEquals(16, traces.size());
+        assertEquals(16, report.getTraces());
+        assertTrue(report.isComplete());
+    }
+
+    @Test
+    public void testMaxTraceLength() {
+        TraceExplorer explorer = new TraceExplorer(independentEvents(3));
+        ExplorationOptions options = new ExplorationOptions();
+        options.setMaxTraceLength(1);
+
+        Set<List<String>> traces = new HashSet<>();
+        ExplorationReport report = explorer.forEachTrace(traces::add, options);
+        assertEquals(Set.of(List.of(), List.of("e0"), List.of("e1"), List.of("e2")), traces);
+        assertTrue(report.isLengthBounded());
+        assertFalse(report.isComplete());
+
+        options.setMaxTraceLength(3);
+        report = explorer.forEachTrace(trace -> {}, options);
+        assertEquals(16, report.getTraces());
+        assertFalse(report.isLengthBounded(), "No trace is longer than the bound");
+        assertTrue(report.isComplete());
+    }
+
+    @Test
+    public void testMaxTraces() {
+        TraceExplorer explorer = new TraceExplorer(independentEvents(3));
+        ExplorationOptions options = new ExplorationOptions();
+        options.setMaxTraces(5);
+
+        List<List<String>> traces = new ArrayList<>();
+        ExplorationReport report = explorer.forEachTrace(traces::add, options);
+        assertEquals(5, traces.size());
+        assertTrue(report.isTraceLimitReached());
+        assertFalse(report.isComplete());
+
+        options.setMaxTraces(16);
+        report = explorer.forEachTrace(trace -> {}, options);
+        assertEquals(16, report.getTraces());
+        assertFalse(report.isTraceLimitReached(), "Every trace fits in the limit");
+    }
+
+    @Test
+    public void testTimeBudget() {
+        ExplorationOptions options = new ExplorationOptions();
+        options.setTimeBudget(Duration.ZERO);
+
+        ExplorationReport report = new TraceExplorer(independentEvents(3)).forEachTrace(trace -> {}, options);
+        assertTrue(report.isTimedOut());
+        assertFalse(report.isComplete());
+    }
+
+    @Test
+    public void testSeededSampling() {
+        TraceExplorer explorer = new TraceExplorer(independentEvents(3));
+        ExplorationOptions options = new ExplorationOptions();
+        options.setSampling(50, 7L);
+
+        List<List<String>> samples = new ArrayList<>();
+        ExplorationReport report = explorer.forEachTrace(samples::add, options);
+        assertEquals(50, samples.size());
+        assertEquals(50, report.getTraces());
+        assertTrue(report.isSampled());
+        assertFalse(report.isComplete());
+        for (List<String> sample : samples) {
+            assertEquals(3, sample.size(), "Only maximal traces should be sampled");
+        }
+
+        List<List<String>> again = new ArrayList<>();
+        explorer.forEachTrace(again::add, options);
+        assertEquals(samples, again, "The same seed should give the same samples");
+    }
+
+    @Test
+    public void testReducedTracesOfParallelChains() {
+        BundleEventStructureFactory factory = new BundleEventStructureFactory();
+        for (String name : List.of("a1", "a2", "a3", "b1", "b2", "b3", "c")) {
+            factory.addEvent(name);
+        }
+        factory.addCausality(Set.of("a1"), "a2");
+        factory.addCausality(Set.of("a2"), "a3");
+        factory.addCausality(Set.of("b1"), "b2");
+        factory.addCausality(Set.of("b2"), "b3");
+
+        BundleEventStructure bes = factory.build();
+        Set<List<String>> reduced = assertReducedTracesExpand(bes);
+
+        // One representative per configuration: 4 prefixes of each chain, with or without c
+        assertEquals(4 * 4 * 2, reduced.size());
+        assertTrue(reduced.size() < new BundleEventStructureExecutor(bes).getAllTraces().size());
+    }
+
+    @Test
+    public void testReducedTracesOfConflictingEvents() {
+        BundleEventStructureFactory factory = new BundleEventStructureFactory();
+        for (int i = 0; i < 7; i++) {
+            factory.addEvent("e" + i);
+        }
+        factory.addConflicts(List.of("e0"), List.of("e1", "e2"));
+        factory.addConflict("e1", "e2");
+        factory.addConflict("e3", "e4");
+        factory.addConflicts(List.of("e5"), List.of("e2", "e4"));
+        factory.addCausality(Set.of("e0", "e1"), "e5");
+        factory.addCausality(Set.of("e2"), "e3");
+        factory.addCausality(Set.of("e3", "e4"), "e6");
+
+        assertReducedTracesExpand(factory.build());
+    }
+
+    @Test
+    public void testReducedTracesOfRandomStructures() {
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            assertReducedTracesExpand(randomStructure(random, 2 + random.nextInt(6)));
+        }
+    }
+
+    private static Set<List<String>> assertReducedTracesExpand(BundleEventStructure bes) {
+        BundleEventStructureExecutor executor = new BundleEventStructureExecutor(bes);
+        Set<List<String>> traces = executor.getAllTraces();
+
+        ExplorationOptions options = new ExplorationOptions();
+        options.setPartialOrderReduction(true);
+        executor.setExplorationOptions(options);
+        Set<List<String>> reduced = executor.getAllTraces();
+
+        assertTrue(executor.getExplorationReport().isReduced());
+        assertTrue(traces.containsAll(reduced), "Representatives should be traces of the structure");
+        assertEquals(traces, executor.expandTraces(reduced), "The classes of the representatives should be all the traces");
+        int expanded = 0;
+        for (List<String> trace : reduced) {
+            expanded += executor.expandTraces(Set.of(trace)).size();
+        }
+        assertEquals(traces.size(), expanded, "The classes of the representatives should be disjoint");
+        return reduced;
+    }
+
+    private static BundleEventStructure independentEvents(int size) {
+        BundleEventStructureFactory factory = new BundleEventStructureFactory();
+        for (int i = 0; i < size; i++) {
+            factory.addEvent("e" + i);
+        }
+        return factory.build();
+    }
+
+    private static void assertSameTraces(BundleEventStructure bes) {
+        Set<List<String>> expected = getRecursiveTraces(bes);
+
+        Set<List<String>> streamed = new HashSet<>();
+        TraceExplorer explorer = new TraceExplorer(bes);
+        explorer.forEachTrace(streamed::add);
+        Set<List<String>> traces = new BundleEventStructureExecutor(bes).getAllTraces();
+
+        assertEquals(expected, streamed, "The streamed traces should be the ones of the recursive exploration");
+        assertEquals(expected, traces, "The executor traces should be the ones of the recursive exploration");
+        assertEquals(BigInteger.valueOf(traces.size()), explorer.countTraces(),
+                "The number of traces should be the number of distinct traces");
+    }
+
+    private static BundleEventStructure randomStructure(Random random, int size) {
+        BundleEventStructureFactory factory = new BundleEventStructureFactory();
+        for (int i = 0; i < size; i++) {
+            factory.addEvent("e" + i);
+        }
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                if (random.nextInt(6) == 0) {
+                    factory.addConflict("e" + i, "e" + j);
+                }
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (random.nextBoolean()) {
+                Set<String> bundle = new HashSet<>();
+                for (int k = 1 + random.nextInt(2); k > 0; k--) {
+                    int j = random.nextInt(size);
+                    if (j != i) {
+                        bundle.add("e" + j);
+                    }
+                }
+                if (!bundle.isEmpty()) {
+                    factory.addCausality(bundle, "e" + i);
+                }
+            }
+        }
+        return factory.build();
+    }
+
+    // The recursive exploration that TraceExplorer replaced, kept as the reference
+    private static Set<List<String>> getRecursiveTraces(BundleEventStructure bes) {
+        Set<List<String>> traces = new HashSet<>();
+        exploreConfigurations(bes, new ArrayList<>(), new HashSet<>(), traces);
+        return traces;
+    }
+
+    private static void exploreConfigurations(BundleEventStructure bes, List<String> currentTrace, Set<Event> executed,
+                                              Set<List<String>> traces) {
+        traces.add(new ArrayList<>(currentTrace));
+
+        for (Event event : bes.getAllEvents()) {
+            if (executed.contains(event)) continue;
+            if (!areAllCausalPredecessorsExecuted(bes, event, executed)) continue;
+            if (isInConflictWithExecuted(bes, event, executed)) continue;
+
+            List<String> newTrace = new ArrayList<>(currentTrace);
+            newTrace.add(event.getName());
+            Set<Event> newExecuted = new HashSet<>(executed);
+            newExecuted.add(event);
+            exploreConfigurations(bes, newTrace, newExecuted, traces);
+        }
+    }
+
+    private static boolean areAllCausalPredecessorsExecuted(BundleEventStructure bes, Event event, Set<Event> executed) {
+        Iterator<CausalityRelation> causals = bes.getAllCausalitiesOfEvent(event);
+        while (causals.hasNext()) {
+            if (causals.next().getBundle().stream().noneMatch(executed::contains)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isInConflictWithExecuted(BundleEventStructure bes, Event event, Set<Event> executed) {
+        for (Event executedEvent : executed) {
+            if (bes.areInConflict(event, executedEvent)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.integration;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import uk.kcl.info.bfm.DefaultBundleEventStructure;
+import uk.kcl.info.bfm.Event;
+import uk.kcl.info.bfm.configuration.BitSetConfigurationEnumerator;
+import uk.kcl.info.bfm.configuration.ConfigurationEnumerationStrategy;
+import uk.kcl.info.bfm.configuration.ParallelConfigurationExplorer;
+import uk.kcl.info.bfm.exceptions.BundleEventStructureDefinitionException;
+import uk.kcl.info.bfm.io.xml.XmlLoaderUtility;
+
+import java.io.File;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ConfigurationEnumerationIntegrationTest {
+
+    private static final String BASE_PATH = "src/test/resources/testcases/";
+    private static final String BES_IN_PATH = BASE_PATH + "bes/";
+
+    @ParameterizedTest
+    @ValueSource(strings = {"robot.bes", "robot-linear.bes"})
+    public void testEnumerationStrategies(String besFileName) throws BundleEventStructureDefinitionException {
+
+        // Load BES
+        DefaultBundleEventStructure bes = (DefaultBundleEventStructure) XmlLoaderUtility.loadBundleEventStructure(new File(BES_IN_PATH + besFileName));
+
+        // Enumerate with every linearisation, then duplicate free, then in parallel
+        TreeMap<Integer, Set<Set<Event>>> expected = new BitSetConfigurationEnumerator(bes, ConfigurationEnumerationStrategy.ALL_LINEARISATIONS).getAllConfigurations();
+
+        bes.setEnumerationStrategy(ConfigurationEnumerationStrategy.DUPLICATE_FREE);
+        TreeMap<Integer, Set<Set<Event>>> canonical = bes.getAllConfigurations();
+        long configurationsCount = canonical.values().stream().mapToLong(Set::size).sum();
+
+        ParallelConfigurationExplorer explorer = new ParallelConfigurationExplorer(bes, 4, 1);
+        TreeMap<Integer, Set<Set<Event>>> parallel = explorer.getAllConfigurations();
+
+        assertEquals(expected, canonical, "The duplicate-free enumeration should find the same configurations");
+        assertEquals(configurationsCount, bes.getEnumerationStatistics().getVisits(), "Each configuration should be visited once");
+        assertEquals(expected, parallel, "The parallel exploration should find the same configurations");
+    }
+
+}
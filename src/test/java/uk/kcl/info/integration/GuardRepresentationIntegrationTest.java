@@ -0,0 +1,159 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.integration;
+
+import be.vibes.fexpression.FExpression;
+import be.vibes.solver.FeatureModel;
+import be.vibes.solver.io.xml.XmlLoaders;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import uk.kcl.info.bfm.BehavioralFeature;
+import uk.kcl.info.bfm.BehavioralFeatureModel;
+import uk.kcl.info.bfm.BehavioralFeatureModelFactory;
+import uk.kcl.info.bfm.CausalityRelation;
+import uk.kcl.info.bfm.DefaultFeaturedEventStructure;
+import uk.kcl.info.bfm.Event;
+import uk.kcl.info.bfm.FeaturedEventStructure;
+import uk.kcl.info.bfm.FeaturedEventStructureFactory;
+import uk.kcl.info.bfm.GuardRepresentation;
+import uk.kcl.info.bfm.ProductEnumeration;
+import uk.kcl.info.bfm.configuration.ConfigurationEnumerationStrategy;
+import uk.kcl.info.bfm.exceptions.BehavioralFeatureModelDefinitionException;
+import uk.kcl.info.bfm.exceptions.BundleEventStructureDefinitionException;
+import uk.kcl.info.bfm.io.xml.XmlLoaderUtility;
+import uk.kcl.info.utils.bdd.BddManager;
+import uk.kcl.info.utils.bdd.FExpressionBddEncoder;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class GuardRepresentationIntegrationTest {
+
+    private static final String BASE_PATH = "src/test/resources/testcases/";
+    private static final String FM_IN_PATH = BASE_PATH + "fm/xml/";
+    private static final String FES_IN_PATH = BASE_PATH + "fes/";
+    private static final String BFM_IN_PATH = BASE_PATH + "bfm/";
+
+    @ParameterizedTest
+    @ValueSource(strings = {"robot.fes", "robot-linear.fes"})
+    public void testGuardRepresentations(String fesFileName) throws BundleEventStructureDefinitionException {
+
+        // Load FM
+        FeatureModel<?> fm = XmlLoaders.loadFeatureModel(FM_IN_PATH + "robot.xml");
+
+        // Load FES, then copy it with BDD guards
+        FeaturedEventStructure<?> fes = XmlLoaderUtility.loadFeaturedEventStructure(FES_IN_PATH + fesFileName, fm);
+        FeaturedEventStructure<?> bddFes = copy(fes, fm, GuardRepresentation.BDD);
+
+        for (ConfigurationEnumerationStrategy strategy : ConfigurationEnumerationStrategy.values()) {
+            ((DefaultFeaturedEventStructure<?>) fes).setEnumerationStrategy(strategy);
+            ((DefaultFeaturedEventStructure<?>) bddFes).setEnumerationStrategy(strategy);
+            TreeMap<Integer, Set<Set<Event>>> expected = fes.getAllConfigurations();
+            TreeMap<Integer, Set<Set<Event>>> actual = bddFes.getAllConfigurations();
+
+            assertEquals(expected, actual, "Both representations should find the same configurations");
+
+            // Guards are compared as BDDs of a common manager: equivalent guards are the same node
+            FExpressionBddEncoder encoder = new FExpressionBddEncoder(new BddManager());
+            for (Set<Set<Event>> level : expected.values()) {
+                for (Set<Event> config : level) {
+                    assertEquals(encoder.encode(fes.getFExpression(config)), encoder.encode(bddFes.getFExpression(config)),
+                            "Both representations should give equivalent guards to " + config);
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"robot.bfm", "robot-linear.bfm"})
+    public void testProductEnumerations(String bfmFileName) throws BehavioralFeatureModelDefinitionException {
+
+        // Load BFM, then copy it with BDD guards
+        BehavioralFeatureModel bfm = XmlLoaderUtility.loadBehavioralFeatureModel(BFM_IN_PATH + bfmFileName);
+        BehavioralFeatureModel bddBfm = copy(bfm, GuardRepresentation.BDD);
+
+        // Guards are compared within the products: guard ∧ FM, as BDDs of a common manager
+        FExpressionBddEncoder encoder = new FExpressionBddEncoder(new BddManager());
+        BddManager manager = encoder.getManager();
+        int featureModel = encoder.encodeFeatureModel(bfm);
+
+        bfm.setProductEnumeration(ProductEnumeration.PER_PRODUCT);
+        TreeMap<Integer, Set<Set<Event>>> expected = bfm.getAllConfigurations();
+        Map<Set<Event>, Integer> expectedGuards = new HashMap<>();
+        for (Set<Set<Event>> level : expected.values()) {
+            for (Set<Event> config : level) {
+                expectedGuards.put(config, manager.and(encoder.encode(bfm.getFExpression(config)), featureModel));
+            }
+        }
+
+        for (BehavioralFeatureModel model : List.of(bfm, bddBfm)) {
+            for (ProductEnumeration productEnumeration : ProductEnumeration.values()) {
+                model.setProductEnumeration(productEnumeration);
+                TreeMap<Integer, Set<Set<Event>>> actual = model.getAllConfigurations();
+
+                assertEquals(expected, actual, "Every product enumeration should find the same configurations");
+                for (Set<Set<Event>> level : actual.values()) {
+                    for (Set<Event> config : level) {
+                        assertEquals(expectedGuards.get(config), manager.and(encoder.encode(model.getFExpression(config)), featureModel),
+                                "Every product enumeration should give equivalent guards to " + config);
+                    }
+                }
+            }
+        }
+    }
+
+    private static BehavioralFeatureModel copy(BehavioralFeatureModel bfm, GuardRepresentation guardRepresentation) {
+        BehavioralFeatureModelFactory factory = new BehavioralFeatureModelFactory(bfm, guardRepresentation);
+        Set<BehavioralFeature> features = bfm.getRootFeature().getAllRecursiveFeatures();
+        for (BehavioralFeature feature : features) {
+            for (Map.Entry<Event, FExpression> entry : feature.getEventMap().entrySet()) {
+                factory.addEvent(feature.getFeatureName(), entry.getKey().getName(), entry.getValue());
+            }
+        }
+        for (BehavioralFeature feature : features) {
+            for (CausalityRelation causality : feature.getCausalities()) {
+                factory.addCausality(feature.getFeatureName(), causality);
+            }
+            if (feature.getConflictsCount() > 0) {
+                factory.addConflicts(feature.getFeatureName(), feature.getRootConflictSetCopy());
+            }
+        }
+        return factory.build();
+    }
+
+    private static FeaturedEventStructure<?> copy(FeaturedEventStructure<?> fes, FeatureModel<?> fm, GuardRepresentation guardRepresentation) {
+        FeaturedEventStructureFactory factory = new FeaturedEventStructureFactory(fm, guardRepresentation);
+        for (Event e : fes.getAllEvents()) {
+            factory.addEvent(e.getName(), fes.getFeature(e), fes.getFExpression(e));
+        }
+        for (Event e : fes.getAllEvents()) {
+            for (Event other : fes.getAllConflictsOfEvent(e)) {
+                factory.addConflict(e.getName(), other.getName());
+            }
+        }
+        for (Iterator<CausalityRelation> it = fes.causalities(); it.hasNext(); ) {
+            CausalityRelation causality = it.next();
+            Set<String> bundle = causality.getBundle().stream().map(Event::getName).collect(Collectors.toSet());
+            factory.addCausality(bundle, causality.getTarget().getName());
+        }
+        return factory.build();
+    }
+}
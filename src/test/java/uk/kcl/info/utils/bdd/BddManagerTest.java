@@ -0,0 +1,94 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.utils.bdd;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BddManagerTest {
+
+    private BddManager manager;
+    private int x;
+    private int y;
+    private int z;
+
+    @BeforeEach
+    public void setUp() {
+        manager = new BddManager();
+        x = manager.variable(manager.newVariable());
+        y = manager.variable(manager.newVariable());
+        z = manager.variable(manager.newVariable());
+    }
+
+    @Test
+    public void testCanonicity() {
+        // Equivalent functions built in different ways are the same node
+        assertEquals(manager.and(x, manager.or(y, z)), manager.or(manager.and(x, y), manager.and(x, z)));
+        assertEquals(manager.not(manager.and(x, y)), manager.or(manager.not(x), manager.not(y)));
+        assertEquals(manager.and(y, x), manager.and(x, y));
+        assertEquals(x, manager.not(manager.not(x)));
+        assertEquals(manager.notVariable(0), manager.not(x));
+        assertEquals(manager.variable(0), x);
+    }
+
+    @Test
+    public void testOperations() {
+        assertEquals(BddManager.FALSE, manager.and(x, manager.not(x)));
+        assertEquals(BddManager.TRUE, manager.or(x, manager.not(x)));
+        assertEquals(BddManager.FALSE, manager.not(BddManager.TRUE));
+        assertEquals(x, manager.and(x, BddManager.TRUE));
+        assertEquals(x, manager.or(x, BddManager.FALSE));
+        assertEquals(manager.and(x, manager.not(y)), manager.diff(x, y));
+
+        int xy = manager.and(x, y);
+        assertFalse(manager.isTerminal(xy));
+        assertEquals(0, manager.getVariable(xy));
+        assertEquals(BddManager.FALSE, manager.getLow(xy));
+        assertEquals(y, manager.getHigh(xy));
+    }
+
+    @Test
+    public void testImplies() {
+        assertTrue(manager.implies(manager.and(x, y), x));
+        assertTrue(manager.implies(x, manager.or(x, z)));
+        assertTrue(manager.implies(BddManager.FALSE, x));
+        assertFalse(manager.implies(x, manager.and(x, y)));
+        assertFalse(manager.implies(BddManager.TRUE, x));
+        assertFalse(manager.isSatisfiable(manager.and(manager.and(x, y), manager.not(y))));
+    }
+
+    @Test
+    public void testSatCount() {
+        // Assignments of the three variables
+        assertEquals(BigInteger.valueOf(8), manager.satCount(BddManager.TRUE));
+        assertEquals(BigInteger.ZERO, manager.satCount(BddManager.FALSE));
+        assertEquals(BigInteger.valueOf(4), manager.satCount(x));
+        assertEquals(BigInteger.valueOf(4), manager.satCount(z));
+        assertEquals(BigInteger.valueOf(2), manager.satCount(manager.and(x, y)));
+        assertEquals(BigInteger.valueOf(6), manager.satCount(manager.or(x, y)));
+        assertEquals(BigInteger.ONE, manager.satCount(manager.and(x, manager.and(y, z))));
+
+        int xor = manager.or(manager.diff(x, y), manager.diff(y, x));
+        assertEquals(BigInteger.valueOf(4), manager.satCount(xor));
+    }
+}
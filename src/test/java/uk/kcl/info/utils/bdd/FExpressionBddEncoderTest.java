@@ -0,0 +1,109 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.utils.bdd;
+
+import be.vibes.fexpression.FExpression;
+import be.vibes.fexpression.Feature;
+import be.vibes.fexpression.configuration.Configuration;
+import be.vibes.solver.FeatureModel;
+import be.vibes.solver.exception.ConstraintSolvingException;
+import be.vibes.solver.io.xml.XmlLoaders;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FExpressionBddEncoderTest {
+
+    private final FExpression a = new FExpression(new Feature<>("a"));
+    private final FExpression b = new FExpression(new Feature<>("b"));
+    private final FExpression c = new FExpression(new Feature<>("c"));
+
+    @Test
+    public void testEncodingFollowsOperations() {
+        FExpressionBddEncoder encoder = new FExpressionBddEncoder(new BddManager());
+        BddManager manager = encoder.getManager();
+        int x = encoder.encode(a);
+        int y = encoder.encode(b);
+
+        assertEquals(BddManager.TRUE, encoder.encode(FExpression.trueValue()));
+        assertEquals(BddManager.FALSE, encoder.encode(FExpression.falseValue()));
+        assertEquals(manager.and(x, y), encoder.encode(a.and(b)));
+        assertEquals(manager.or(x, y), encoder.encode(a.or(b)));
+        assertEquals(manager.not(x), encoder.encode(a.not()));
+        assertEquals(BddManager.FALSE, encoder.encode(a.and(a.not())));
+        // Equivalent expressions are the same node
+        assertEquals(encoder.encode(a.and(b.or(c))), encoder.encode(a.and(b).or(a.and(c))));
+    }
+
+    @Test
+    public void testDeclaredOrder() {
+        FExpressionBddEncoder encoder = new FExpressionBddEncoder(new BddManager());
+        encoder.declareFeature(new Feature<>("b"));
+
+        encoder.encode(a.and(b));
+        assertEquals(0, encoder.getVariable("b"));
+        assertEquals(1, encoder.getVariable("a"));
+        assertEquals(-1, encoder.getVariable("c"));
+        assertEquals("b", encoder.getFeature(0).getFeatureName());
+    }
+
+    @Test
+    public void testDecodingRoundTrip() {
+        FExpressionBddEncoder encoder = new FExpressionBddEncoder(new BddManager());
+        FExpression[] fexprs = {
+                FExpression.trueValue(),
+                FExpression.falseValue(),
+                a,
+                a.not(),
+                a.and(b),
+                a.or(b.not()),
+                a.and(b).or(a.not().and(c)),
+                a.and(b).or(b.and(c)).or(a.and(c))
+        };
+        for (FExpression fexpr : fexprs) {
+            int bdd = encoder.encode(fexpr);
+            assertEquals(bdd, encoder.encode(encoder.decode(bdd)), "Decoding should keep the function of " + fexpr);
+        }
+    }
+
+    @Test
+    public void testFeatureModelEncodingHasTheProductsOfTheSolver() throws ConstraintSolvingException {
+        FeatureModel<?> fm = XmlLoaders.loadFeatureModel("src/test/resources/testcases/fm/xml/robot.xml");
+        FExpressionBddEncoder encoder = new FExpressionBddEncoder(new BddManager());
+        BddManager manager = encoder.getManager();
+        int products = encoder.encodeFeatureModel(fm);
+
+        int count = 0;
+        for (Iterator<Configuration> it = fm.getSolutions(); it.hasNext(); count++) {
+            Configuration product = it.next();
+            int minterm = BddManager.TRUE;
+            for (Feature<?> f : fm.getFeatures()) {
+                int variable = encoder.getVariable(f.getFeatureName());
+                minterm = manager.and(minterm, product.isSelected(f) ? manager.variable(variable) : manager.notVariable(variable));
+            }
+            assertTrue(manager.implies(minterm, products), "Every product of the solver should satisfy the encoding");
+        }
+        // Only the features of the model are variables
+        assertEquals(fm.getFeatures().size(), manager.getVariableCount());
+        assertEquals(BigInteger.valueOf(count), manager.satCount(products), "The encoding should have no other product");
+    }
+}
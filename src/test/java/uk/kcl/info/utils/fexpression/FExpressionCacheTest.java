@@ -0,0 +1,89 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.utils.fexpression;
+
+import be.vibes.fexpression.FExpression;
+import be.vibes.fexpression.Feature;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FExpressionCacheTest {
+
+    private final FExpression a = new FExpression(new Feature<>("a"));
+    private final FExpression b = new FExpression(new Feature<>("b"));
+    private final FExpression c = new FExpression(new Feature<>("c"));
+
+    @Test
+    public void testRepeatedOperationsHit() {
+        FExpressionCache cache = new FExpressionCache();
+
+        FExpression ab = cache.and(a, b);
+        assertSame(ab, cache.and(a, b));
+        assertSame(ab, cache.and(b, a), "Conjunction should be keyed regardless of the operand order");
+        assertSame(cache.or(a, b), cache.or(b, a), "Disjunction should be keyed regardless of the operand order");
+        assertSame(cache.not(a), cache.not(a));
+        assertEquals(3, cache.getMisses());
+        assertEquals(4, cache.getHits());
+
+        // Cached results are operands in turn
+        FExpression abc = cache.and(ab, c);
+        assertSame(abc, cache.and(c, cache.and(a, b)));
+    }
+
+    @Test
+    public void testOperationsDoNotCollide() {
+        FExpressionCache cache = new FExpressionCache();
+
+        FExpression and = cache.and(a, b);
+        FExpression or = cache.or(a, b);
+        assertNotSame(and, or);
+        assertEquals(a.and(b).applySimplification().toString(), and.toString());
+        assertEquals(a.or(b).applySimplification().toString(), or.toString());
+        assertEquals(a.not().applySimplification().toString(), cache.not(a).toString());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void testFalsity() {
+        FExpressionCache cache = new FExpressionCache();
+
+        assertTrue(cache.isFalse(FExpression.falseValue()));
+        assertFalse(cache.isFalse(FExpression.trueValue()));
+        assertFalse(cache.isFalse(a));
+        assertTrue(cache.isFalse(cache.and(a, FExpression.falseValue())));
+        assertFalse(cache.isFalse(cache.toCnf(cache.or(a, b))));
+    }
+
+    @Test
+    public void testCapacityIsBounded() {
+        FExpressionCache cache = new FExpressionCache(2);
+
+        FExpression ab = cache.and(a, b);
+        cache.and(b, c);
+        cache.and(a, c);
+        assertEquals(2, cache.size());
+        // The eldest entry was evicted
+        assertNotSame(ab, cache.and(a, b));
+        assertEquals(0, cache.getHits());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ *
+ *  * Copyright 2025 Sophie Fortz
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package uk.kcl.info.utils.translators;
+
+import be.vibes.fexpression.FExpression;
+import be.vibes.fexpression.Feature;
+import be.vibes.ts.FeaturedTransitionSystem;
+import be.vibes.ts.FeaturedTransitionSystemFactory;
+import org.junit.jupiter.api.Test;
+import uk.kcl.info.utils.bdd.BddManager;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static uk.kcl.info.utils.translators.TranslationUtils.INITIAL_STATE;
+
+public class FeaturedActionReachabilityIndexTest {
+
+    @Test
+    public void testGuardInfeasiblePairsAreDropped() {
+        FExpression f = new FExpression(new Feature<>("f"));
+        FExpression g = new FExpression(new Feature<>("g"));
+
+        FeaturedTransitionSystemFactory factory = new FeaturedTransitionSystemFactory(INITIAL_STATE);
+        factory.addActions("a", "b", "c", "d", "e");
+        factory.addStates("s1", "s2", "s3", "s4", "s5");
+        // a (f) then b (!f): both transitions never exist in the same product
+        factory.addTransition(INITIAL_STATE, "a", f, "s1");
+        factory.addTransition("s1", "b", f.not(), "s2");
+        // c (f) then d (g): possible in the products with f and g
+        factory.addTransition(INITIAL_STATE, "c", f, "s3");
+        factory.addTransition("s3", "d", g, "s4");
+        // e exists in no product
+        factory.addTransition("s4", "e", f.and(f.not()), "s5");
+        FeaturedTransitionSystem fts = factory.build();
+
+        FeaturedActionReachabilityIndex index = new FeaturedActionReachabilityIndex(fts);
+        ActionReachabilityIndex unfeatured = new ActionReachabilityIndex(fts);
+        BddManager manager = index.getBddManager();
+
+        assertTrue(unfeatured.isPredecessor(fts.getAction("a"), fts.getAction("b")));
+        assertFalse(index.isPredecessor(fts.getAction("a"), fts.getAction("b")), "a and b exist in no common product");
+        assertFalse(index.isReachable(fts.getAction("a"), fts.getAction("b")), "a and b exist in no common product");
+        assertEquals(BddManager.FALSE, index.getReachabilityProducts(fts.getAction("a"), fts.getAction("b")));
+
+        assertTrue(index.isPredecessor(fts.getAction("c"), fts.getAction("d")));
+        assertTrue(index.isReachable(fts.getAction("c"), fts.getAction("d")));
+        int products = index.getPredecessorProducts(fts.getAction("c"), fts.getAction("d"));
+        assertEquals(BigInteger.ONE.shiftLeft(manager.getVariableCount() - 2), manager.satCount(products),
+                "c then d should only be possible with both f and g");
+
+        assertTrue(unfeatured.isReachable(fts.getAction("c"), fts.getAction("e")));
+        assertFalse(index.isReachable(fts.getAction("c"), fts.getAction("e")), "e exists in no product");
+        assertFalse(index.isPredecessor(fts.getAction("d"), fts.getAction("e")), "e exists in no product");
+    }
+}